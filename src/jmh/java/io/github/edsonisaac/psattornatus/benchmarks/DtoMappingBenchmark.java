@@ -0,0 +1,60 @@
+package io.github.edsonisaac.psattornatus.benchmarks;
+
+import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping over large graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "1000"})
+    private int pessoas;
+
+    @Param({"1", "10"})
+    private int enderecos;
+
+    private List<Pessoa> graph;
+    private List<Endereco> flat;
+
+    /**
+     * Sets .
+     */
+    @Setup
+    public void setup() {
+        this.graph = Fixtures.pessoas(pessoas, enderecos);
+        this.flat = graph.stream().flatMap(p -> p.getEnderecos().stream()).toList();
+    }
+
+    /**
+     * Pessoa to dto list.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public List<PessoaDTO> pessoaToDTO() {
+        return graph.stream().map(p -> PessoaDTO.toDTO(p)).toList();
+    }
+
+    /**
+     * Endereco to dto list.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public List<EnderecoDTO> enderecoToDTO() {
+        return flat.stream().map(e -> EnderecoDTO.toDTO(e)).toList();
+    }
+}
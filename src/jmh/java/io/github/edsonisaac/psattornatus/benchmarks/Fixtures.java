@@ -0,0 +1,66 @@
+package io.github.edsonisaac.psattornatus.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Synthetic entity graphs shared by the benchmarks.
+ */
+public abstract class Fixtures {
+
+    /**
+     * Build pessoas, each one with the given number of enderecos.
+     *
+     * @param pessoas   the number of pessoas
+     * @param enderecos the number of enderecos per pessoa
+     * @return the list
+     */
+    public static List<Pessoa> pessoas(int pessoas, int enderecos) {
+
+        var list = new ArrayList<Pessoa>(pessoas);
+
+        for (int i = 0; i < pessoas; i++) {
+
+            var pessoa = Pessoa.builder()
+                    .id(UUID.randomUUID())
+                    .nome("Pessoa " + i)
+                    .dataNascimento(LocalDate.of(1990, 1, 1).plusDays(i))
+                    .enderecos(new HashSet<>())
+                    .build();
+
+            for (int j = 0; j < enderecos; j++) {
+                pessoa.getEnderecos().add(Endereco.builder()
+                        .id(UUID.randomUUID())
+                        .logradouro("Rua Felisberto de Castro Dourado")
+                        .numero(String.valueOf(j))
+                        .cidade("Irecê")
+                        .cep("44900000")
+                        .principal(j == 0)
+                        .pessoa(pessoa)
+                        .build());
+            }
+
+            list.add(pessoa);
+        }
+
+        return list;
+    }
+
+    /**
+     * Object mapper configured like the one Spring Boot exposes to the controllers.
+     *
+     * @return the object mapper
+     */
+    public static ObjectMapper mapper() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+}
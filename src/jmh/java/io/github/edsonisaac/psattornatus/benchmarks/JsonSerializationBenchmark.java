@@ -0,0 +1,50 @@
+package io.github.edsonisaac.psattornatus.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the GET /pessoas response body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int pessoas;
+
+    @Param({"1", "10"})
+    private int enderecos;
+
+    private List<PessoaDTO> dtos;
+    private ObjectWriter writer;
+
+    /**
+     * Sets .
+     */
+    @Setup
+    public void setup() {
+        this.dtos = Fixtures.pessoas(pessoas, enderecos).stream().map(p -> PessoaDTO.toDTO(p)).toList();
+        this.writer = Fixtures.mapper().writerFor(Fixtures.mapper().getTypeFactory().constructCollectionType(List.class, PessoaDTO.class));
+    }
+
+    /**
+     * Serialize the list.
+     *
+     * @return the bytes
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.edsonisaac.psattornatus.benchmarks;
+
+import io.github.edsonisaac.psattornatus.PsAttornatusApplication;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of pessoas with their enderecos read from H2, as managed entities copied into dtos or selected straight
+ * into dtos. Run with {@code -prof gc} to compare the allocation per page as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadPathBenchmark {
+
+    @Param({"20", "100"})
+    private int pessoas;
+
+    @Param({"1", "5"})
+    private int enderecos;
+
+    private ConfigurableApplicationContext context;
+    private PessoaRepository repository;
+    private TransactionTemplate transaction;
+    private TransactionTemplate readOnlyTransaction;
+    private List<UUID> ids;
+
+    /**
+     * Sets .
+     */
+    @Setup
+    public void setup() {
+
+        this.context = new SpringApplicationBuilder(PsAttornatusApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "spring.datasource.url=jdbc:h2:mem:benchmark")
+                .run();
+        this.repository = context.getBean(PessoaRepository.class);
+        this.transaction = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        this.readOnlyTransaction = new TransactionTemplate(transaction.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+
+        var enderecoRepository = context.getBean(EnderecoRepository.class);
+
+        transaction.executeWithoutResult(s -> Fixtures.pessoas(pessoas, enderecos).forEach(p -> {
+
+            var salva = repository.save(Pessoa.builder().nome(p.getNome()).dataNascimento(p.getDataNascimento()).build());
+
+            p.getEnderecos().forEach(e -> {
+                e.setId(null);
+                e.setPessoa(salva);
+                enderecoRepository.save(e);
+            });
+        }));
+
+        this.ids = repository.findAll().stream().map(Pessoa::getId).sorted().toList();
+    }
+
+    /**
+     * Tear down.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Load the managed entities and copy them into dtos, in a read-write transaction.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public List<PessoaDTO> entities() {
+        return transaction.execute(s -> repository.findAllWithEnderecosByIdIn(ids).stream().map(p -> PessoaDTO.toDTO(p)).toList());
+    }
+
+    /**
+     * Select the rows straight into dtos, in a read-only transaction.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public List<PessoaDTO> projection() {
+        return readOnlyTransaction.execute(s -> PessoaDTO.toDTOs(repository.findDTOsByIdIn(ids)));
+    }
+}
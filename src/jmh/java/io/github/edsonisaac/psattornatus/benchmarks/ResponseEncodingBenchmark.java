@@ -0,0 +1,97 @@
+package io.github.edsonisaac.psattornatus.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.github.edsonisaac.psattornatus.configs.CborConfig;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The GET /pessoas response body written by the service and read back by a consumer, in JSON and in CBOR. The sizes
+ * of both encodings, plain and gzipped, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseEncodingBenchmark {
+
+    @Param({"100", "1000"})
+    private int pessoas;
+
+    @Param({"1", "10"})
+    private int enderecos;
+
+    @Param({"json", "cbor"})
+    private String encoding;
+
+    private List<PessoaDTO> dtos;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] body;
+
+    /**
+     * Sets .
+     *
+     * @throws IOException the io exception
+     */
+    @Setup
+    public void setup() throws IOException {
+
+        var mapper = encoding.equals("cbor")
+                ? CborConfig.compact(Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build())
+                : Fixtures.mapper();
+        var type = mapper.getTypeFactory().constructCollectionType(List.class, PessoaDTO.class);
+
+        this.dtos = Fixtures.pessoas(pessoas, enderecos).stream().map(p -> PessoaDTO.toDTO(p)).toList();
+        this.writer = mapper.writerFor(type).without(SerializationFeature.INDENT_OUTPUT);
+        this.reader = mapper.readerFor(type);
+        this.body = writer.writeValueAsBytes(dtos);
+
+        System.out.printf("%n%s: %d bytes, %d gzipped%n", encoding, body.length, gzip(body).length);
+    }
+
+    /**
+     * Serialize the list, as the service does.
+     *
+     * @return the bytes
+     * @throws IOException the io exception
+     */
+    @Benchmark
+    public byte[] write() throws IOException {
+        return writer.writeValueAsBytes(dtos);
+    }
+
+    /**
+     * Parse the list, as a consumer does.
+     *
+     * @return the list
+     * @throws IOException the io exception
+     */
+    @Benchmark
+    public List<PessoaDTO> read() throws IOException {
+        return reader.readValue(body);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+
+        var out = new ByteArrayOutputStream();
+
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+
+        return out.toByteArray();
+    }
+}
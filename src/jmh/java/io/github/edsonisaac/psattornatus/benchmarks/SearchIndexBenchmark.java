@@ -0,0 +1,108 @@
+package io.github.edsonisaac.psattornatus.benchmarks;
+
+import io.github.edsonisaac.psattornatus.dtos.PessoaFiltroDTO;
+import io.github.edsonisaac.psattornatus.services.PessoaSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches over a populated {@link PessoaSearchIndex}, the budget is 10 ms per search at one million pessoas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchIndexBenchmark {
+
+    private static final String[] NOMES = {"Ana", "Antônio", "Beatriz", "Carlos", "Débora", "Eduardo", "Fernanda",
+            "Gabriel", "Helena", "Igor", "Joana", "José", "Larissa", "Lucas", "Maria", "Mateus", "Natália", "Otávio",
+            "Paula", "Rafael", "Sofia", "Thiago", "Vitória", "Yuri"};
+
+    private static final String[] SOBRENOMES = {"Almeida", "Barbosa", "Cardoso", "Conceição", "Costa", "Dias",
+            "Ferreira", "Gomes", "Lima", "Martins", "Moreira", "Nascimento", "Oliveira", "Pereira", "Ribeiro", "Rocha",
+            "Santos", "Silva", "Souza", "Teixeira"};
+
+    private static final String[] CIDADES = {"Irecê", "Salvador", "Feira de Santana", "Vitória da Conquista",
+            "Juazeiro", "Ilhéus", "Itabuna", "Barreiras", "Jequié", "Alagoinhas"};
+
+    @Param({"100000", "1000000"})
+    private int pessoas;
+
+    private PessoaSearchIndex index;
+
+    /**
+     * Sets .
+     */
+    @Setup
+    public void setup() {
+
+        var random = new Random(42);
+        var lote = new ArrayList<PessoaSearchIndex.Documento>(10_000);
+
+        index = new PessoaSearchIndex();
+
+        for (int i = 0; i < pessoas; i++) {
+
+            var nome = "%s %s %s %d".formatted(NOMES[random.nextInt(NOMES.length)], SOBRENOMES[random.nextInt(SOBRENOMES.length)],
+                    SOBRENOMES[random.nextInt(SOBRENOMES.length)], i);
+
+            lote.add(PessoaSearchIndex.Documento.of(UUID.randomUUID(), nome, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(25_000)),
+                    List.of(CIDADES[random.nextInt(CIDADES.length)]), List.of("%08d".formatted(random.nextInt(100_000_000)))));
+
+            if (lote.size() == 10_000) {
+                index.putAll(lote);
+                lote.clear();
+            }
+        }
+
+        index.putAll(lote);
+    }
+
+    /**
+     * A prefix of two words.
+     *
+     * @return the resultado
+     */
+    @Benchmark
+    public PessoaSearchIndex.Resultado prefix() {
+        return index.search(new PessoaFiltroDTO("maria conc", null, null, null, null), 0, 20);
+    }
+
+    /**
+     * A misspelled nome.
+     *
+     * @return the resultado
+     */
+    @Benchmark
+    public PessoaSearchIndex.Resultado fuzzy() {
+        return index.search(new PessoaFiltroDTO("jsoe sliva 4242", null, null, null, null), 0, 20);
+    }
+
+    /**
+     * A cidade and a data de nascimento range, without nome.
+     *
+     * @return the resultado
+     */
+    @Benchmark
+    public PessoaSearchIndex.Resultado cidadeAndNascimento() {
+        return index.search(new PessoaFiltroDTO(null, "irece", null, LocalDate.of(1980, 1, 1), LocalDate.of(1980, 12, 31)), 0, 20);
+    }
+
+    /**
+     * A cep prefix with a nome prefix.
+     *
+     * @return the resultado
+     */
+    @Benchmark
+    public PessoaSearchIndex.Resultado cepAndNome() {
+        return index.search(new PessoaFiltroDTO("ana", null, "449", null, null), 0, 20);
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.edsonisaac.psattornatus.benchmarks;
+
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of the Pessoa and Endereco request bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidationBenchmark {
+
+    @Param({"0", "10"})
+    private int enderecos;
+
+    private Validator validator;
+    private Pessoa pessoa;
+    private Endereco endereco;
+    private Pessoa invalida;
+
+    /**
+     * Sets .
+     */
+    @Setup
+    public void setup() {
+        this.validator = Validation.buildDefaultValidatorFactory().getValidator();
+        this.pessoa = Fixtures.pessoas(1, Math.max(enderecos, 1)).get(0);
+        this.endereco = pessoa.getEnderecos().iterator().next();
+        this.invalida = Pessoa.builder().nome("").build();
+
+        if (enderecos == 0) {
+            pessoa.setEnderecos(null);
+        }
+    }
+
+    /**
+     * Validate a valid pessoa.
+     *
+     * @return the violations
+     */
+    @Benchmark
+    public Set<ConstraintViolation<Pessoa>> validatePessoa() {
+        return validator.validate(pessoa);
+    }
+
+    /**
+     * Validate an invalid pessoa, which also builds the messages.
+     *
+     * @return the violations
+     */
+    @Benchmark
+    public Set<ConstraintViolation<Pessoa>> validateInvalidPessoa() {
+        return validator.validate(invalida);
+    }
+
+    /**
+     * Validate a valid endereco.
+     *
+     * @return the violations
+     */
+    @Benchmark
+    public Set<ConstraintViolation<Endereco>> validateEndereco() {
+        return validator.validate(endereco);
+    }
+}
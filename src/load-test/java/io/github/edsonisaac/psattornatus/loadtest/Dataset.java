@@ -0,0 +1,26 @@
+package io.github.edsonisaac.psattornatus.loadtest;
+
+import java.util.UUID;
+
+/**
+ * The ids the traffic is drawn from. Index {@code i} of every array describes the same pessoa.
+ *
+ * @param pessoaIds   the pessoa ids
+ * @param nomes       the pessoa nomes
+ * @param enderecoIds one endereco id of each pessoa, or null when the pessoa has none
+ */
+public record Dataset(
+        UUID[] pessoaIds,
+        String[] nomes,
+        UUID[] enderecoIds
+) {
+
+    /**
+     * Size int.
+     *
+     * @return the int
+     */
+    public int size() {
+        return pessoaIds.length;
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.edsonisaac.psattornatus.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.edsonisaac.psattornatus.utils.NomeUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds the synthetic dataset, either by seeding the database directly or by walking GET /pessoas of a remote server.
+ */
+public class DatasetSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final LoadTestOptions options;
+    private final Random random;
+
+    /**
+     * Instantiates a new Dataset seeder.
+     *
+     * @param options the options
+     */
+    public DatasetSeeder(LoadTestOptions options) {
+        this.options = options;
+        this.random = new Random(options.seed());
+    }
+
+    /**
+     * Insert the pessoas and their enderecos with JDBC batches.
+     *
+     * @param dataSource the data source
+     * @return the dataset
+     */
+    public Dataset seed(DataSource dataSource) {
+
+        var jdbc = new JdbcTemplate(dataSource);
+        var dataset = new Dataset(new UUID[options.pessoas()], new String[options.pessoas()], new UUID[options.pessoas()]);
+        var pessoas = new ArrayList<Object[]>(BATCH_SIZE);
+        var enderecos = new ArrayList<Object[]>(BATCH_SIZE * options.maxEnderecos());
+
+        for (int i = 0; i < options.pessoas(); i++) {
+
+            var id = UUID.randomUUID();
+            var nome = "Pessoa %07d".formatted(i);
+
+            dataset.pessoaIds()[i] = id;
+            dataset.nomes()[i] = nome;
+            pessoas.add(new Object[]{id, nome, NomeUtils.normalize(nome), Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(25_000)))});
+
+            var total = options.minEnderecos() + random.nextInt(options.maxEnderecos() - options.minEnderecos() + 1);
+
+            for (int j = 0; j < total; j++) {
+
+                var enderecoId = UUID.randomUUID();
+
+                if (j == 0) {
+                    dataset.enderecoIds()[i] = enderecoId;
+                }
+
+                enderecos.add(new Object[]{enderecoId, "Rua " + random.nextInt(5_000), String.valueOf(j + 1),
+                        "Cidade " + random.nextInt(500), "%08d".formatted(random.nextInt(100_000_000)), j == 0, id});
+            }
+
+            if (pessoas.size() == BATCH_SIZE || i == options.pessoas() - 1) {
+                jdbc.batchUpdate("INSERT INTO tb_pessoas (id, nome, nome_normalizado, data_nascimento) VALUES (?, ?, ?, ?)", pessoas);
+                jdbc.batchUpdate("INSERT INTO tb_enderecos (id, logradouro, numero, cidade, cep, principal, pessoa_id) VALUES (?, ?, ?, ?, ?, ?, ?)", enderecos);
+                pessoas.clear();
+                enderecos.clear();
+            }
+        }
+
+        return dataset;
+    }
+
+    /**
+     * Discover the pessoas already stored in a remote server by following the GET /pessoas cursors.
+     *
+     * @param client  the client
+     * @param baseUrl the base url
+     * @param mapper  the mapper
+     * @return the dataset
+     * @throws IOException          the io exception
+     * @throws InterruptedException the interrupted exception
+     */
+    public Dataset discover(HttpClient client, URI baseUrl, ObjectMapper mapper) throws IOException, InterruptedException {
+
+        var pessoas = new ArrayList<JsonNode>();
+        String cursor = null;
+
+        do {
+            var uri = baseUrl.resolve("/pessoas?size=1000" + (cursor != null ? "&cursor=" + cursor : ""));
+            var response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            mapper.readTree(response.body()).forEach(pessoas::add);
+            cursor = response.headers().firstValue("X-Next-Cursor").orElse(null);
+        } while (cursor != null && pessoas.size() < options.pessoas());
+
+        var size = Math.min(pessoas.size(), options.pessoas());
+        var dataset = new Dataset(new UUID[size], new String[size], new UUID[size]);
+
+        for (int i = 0; i < size; i++) {
+
+            var pessoa = pessoas.get(i);
+            List<JsonNode> enderecos = new ArrayList<>();
+            pessoa.path("enderecos").forEach(enderecos::add);
+
+            dataset.pessoaIds()[i] = UUID.fromString(pessoa.get("id").asText());
+            dataset.nomes()[i] = pessoa.get("nome").asText();
+            dataset.enderecoIds()[i] = enderecos.isEmpty() ? null : UUID.fromString(enderecos.get(0).get("id").asText());
+        }
+
+        return dataset;
+    }
+}
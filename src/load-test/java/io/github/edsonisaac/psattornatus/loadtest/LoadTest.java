@@ -0,0 +1,241 @@
+package io.github.edsonisaac.psattornatus.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.edsonisaac.psattornatus.PsAttornatusApplication;
+import io.github.edsonisaac.psattornatus.services.NomeFilterService;
+import io.github.edsonisaac.psattornatus.services.PessoaSearchService;
+import io.github.edsonisaac.psattornatus.utils.CursorUtils;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * End-to-end load test of the /pessoas API.
+ * <p>
+ * Boots the application on a random port over an in-memory H2 seeded with a synthetic dataset (or targets
+ * {@code --base-url}), drives a mixed read/write workload from concurrent clients and reports throughput and
+ * latency percentiles per route. Run with:
+ * <pre>
+ * mvn -Pload-test test-compile exec:exec -Dload.args="--pessoas=1000000 --threads=128 --duration=120"
+ * </pre>
+ */
+public class LoadTest {
+
+    private final LoadTestOptions options;
+    private final String[] applicationArgs;
+    private final HttpClient client;
+    private final Map<String, RouteStats> stats = new LinkedHashMap<>();
+    private final List<Route> routes = new ArrayList<>();
+
+    private URI baseUrl;
+    private Dataset dataset;
+
+    /**
+     * Instantiates a new Load test.
+     *
+     * @param options         the options
+     * @param applicationArgs extra arguments for the embedded application, ignored with {@code --base-url}
+     */
+    public LoadTest(LoadTestOptions options, String... applicationArgs) {
+        this.options = options;
+        this.applicationArgs = applicationArgs;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    /**
+     * The entry point of the load test.
+     *
+     * @param args the input arguments
+     * @throws Exception the exception
+     */
+    public static void main(String[] args) throws Exception {
+        new LoadTest(LoadTestOptions.parse(args)).run();
+    }
+
+    /**
+     * Seed, warm up, measure and report.
+     *
+     * @return the summaries per route
+     * @throws Exception the exception
+     */
+    public List<RouteStats.Summary> run() throws Exception {
+
+        var mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        var seeder = new DatasetSeeder(options);
+        ConfigurableApplicationContext context = null;
+
+        try {
+            if (options.baseUrl() == null) {
+
+                var args = new ArrayList<>(List.of("--server.port=0", "--spring.main.banner-mode=off"));
+                args.addAll(List.of(applicationArgs));
+
+                context = SpringApplication.run(PsAttornatusApplication.class, args.toArray(String[]::new));
+                baseUrl = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+
+                var start = System.nanoTime();
+                dataset = seeder.seed(context.getBean(DataSource.class));
+                context.getBean(NomeFilterService.class).warmUp();
+                context.getBean(PessoaSearchService.class).rebuild();
+                System.out.printf("Seeded %d pessoas in %.1f s%n", dataset.size(), (System.nanoTime() - start) / 1e9);
+            } else {
+                baseUrl = options.baseUrl();
+                dataset = seeder.discover(client, baseUrl, mapper);
+                System.out.printf("Discovered %d pessoas at %s%n", dataset.size(), baseUrl);
+            }
+
+            if (dataset.size() == 0) {
+                throw new IllegalStateException("The dataset is empty");
+            }
+
+            defineRoutes();
+
+            drive(options.warmup());
+            stats.values().forEach(RouteStats::reset);
+
+            var seconds = drive(options.duration());
+            var summaries = stats.values().stream().map(s -> s.summarize(seconds)).toList();
+
+            print(summaries);
+            Files.createDirectories(options.report().toAbsolutePath().getParent());
+            mapper.writeValue(options.report().toFile(), summaries);
+            System.out.println("Report written to " + options.report().toAbsolutePath());
+
+            return summaries;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void defineRoutes() {
+
+        route("GET /pessoas", 10, i -> get("/pessoas?size=100&cursor=" + CursorUtils.encode(dataset.pessoaIds()[i])));
+        route("GET /pessoas/{id}", 40, i -> get("/pessoas/" + dataset.pessoaIds()[i]));
+        route("GET /pessoas/{id}/enderecos", 30, i -> get("/pessoas/" + dataset.pessoaIds()[i] + "/enderecos"));
+        route("GET /pessoas/search", 10, i -> get("/pessoas/search?nome=" + URLEncoder.encode(
+                dataset.nomes()[i].substring(0, dataset.nomes()[i].length() - 2), StandardCharsets.UTF_8)));
+
+        if (options.readOnly()) {
+            return;
+        }
+
+        route("POST /pessoas", 5, i -> send("POST", "/pessoas",
+                pessoa(null, "Carga " + UUID.randomUUID())));
+        route("PUT /pessoas/{id}", 5, i -> send("PUT", "/pessoas/" + dataset.pessoaIds()[i],
+                pessoa(dataset.pessoaIds()[i], dataset.nomes()[i])));
+        route("POST /pessoas/{id}/enderecos", 5, i -> send("POST", "/pessoas/" + dataset.pessoaIds()[i] + "/enderecos",
+                endereco(null, dataset.pessoaIds()[i], ThreadLocalRandom.current().nextInt(10) == 0)));
+        route("PUT /pessoas/{id}/enderecos/{enderecoId}", 5, i -> dataset.enderecoIds()[i] == null ? null
+                : send("PUT", "/pessoas/" + dataset.pessoaIds()[i] + "/enderecos/" + dataset.enderecoIds()[i],
+                endereco(dataset.enderecoIds()[i], dataset.pessoaIds()[i], true)));
+    }
+
+    private void route(String name, int weight, Function<Integer, HttpRequest> request) {
+
+        if (!options.routes().matcher(name).matches()) {
+            return;
+        }
+
+        var route = new Route(stats.computeIfAbsent(name, RouteStats::new), request);
+
+        for (int i = 0; i < weight; i++) {
+            routes.add(route);
+        }
+    }
+
+    private double drive(Duration duration) throws InterruptedException {
+
+        var deadline = System.nanoTime() + duration.toNanos();
+        var start = System.nanoTime();
+        var workers = new ArrayList<Thread>();
+
+        for (int t = 0; t < options.threads(); t++) {
+            var worker = new Thread(() -> {
+
+                var random = ThreadLocalRandom.current();
+
+                while (System.nanoTime() < deadline) {
+
+                    var route = routes.get(random.nextInt(routes.size()));
+                    var request = route.request().apply(random.nextInt(dataset.size()));
+
+                    if (request == null) {
+                        continue;
+                    }
+
+                    var begin = System.nanoTime();
+
+                    try {
+                        var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        route.stats().record(System.nanoTime() - begin, response.statusCode());
+                    } catch (Exception ex) {
+                        route.stats().fail();
+                    }
+                }
+            }, "load-" + t);
+
+            worker.start();
+            workers.add(worker);
+        }
+
+        for (var worker : workers) {
+            worker.join();
+        }
+
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String body) {
+
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String pessoa(UUID id, String nome) {
+
+        return "{%s\"nome\":\"%s\",\"dataNascimento\":\"%s\"}".formatted(
+                id != null ? "\"id\":\"" + id + "\"," : "", nome,
+                LocalDate.of(1950, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(25_000)));
+    }
+
+    private String endereco(UUID id, UUID pessoaId, boolean principal) {
+
+        return "{%s\"logradouro\":\"Rua %d\",\"numero\":\"1\",\"cidade\":\"Cidade %d\",\"cep\":\"44900000\",\"principal\":%b,\"pessoa\":{\"id\":\"%s\"}}".formatted(
+                id != null ? "\"id\":\"" + id + "\"," : "", ThreadLocalRandom.current().nextInt(5_000),
+                ThreadLocalRandom.current().nextInt(500), principal, pessoaId);
+    }
+
+    private void print(List<RouteStats.Summary> summaries) {
+
+        System.out.printf("%n%-42s %10s %8s %10s %9s %9s %9s %9s %9s%n", "route", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+
+        summaries.forEach(s -> System.out.printf("%-42s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                s.route(), s.requests(), s.errors(), s.throughput(), s.p50(), s.p90(), s.p99(), s.p999(), s.max()));
+    }
+
+    private record Route(RouteStats stats, Function<Integer, HttpRequest> request) {
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.edsonisaac.psattornatus.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The load test options, read from {@code --name=value} arguments.
+ *
+ * @param baseUrl    the server under test; when absent the application is booted in process on a random port
+ * @param pessoas    the number of seeded pessoas, or the number discovered from a remote server
+ * @param minEnderecos the minimum number of enderecos per seeded pessoa
+ * @param maxEnderecos the maximum number of enderecos per seeded pessoa
+ * @param threads    the number of concurrent clients
+ * @param warmup     the warmup duration, not reported
+ * @param duration   the measured duration
+ * @param readOnly   whether only GET routes are exercised
+ * @param routes     the pattern the names of the exercised routes match, such as {@code GET\s/pessoas.*}
+ * @param seed       the random seed
+ * @param report     the json report file
+ */
+public record LoadTestOptions(
+        URI baseUrl,
+        int pessoas,
+        int minEnderecos,
+        int maxEnderecos,
+        int threads,
+        Duration warmup,
+        Duration duration,
+        boolean readOnly,
+        Pattern routes,
+        long seed,
+        Path report
+) {
+
+    /**
+     * Parse the arguments.
+     *
+     * @param args the args
+     * @return the load test options
+     */
+    public static LoadTestOptions parse(String... args) {
+
+        var values = new HashMap<String, String>();
+
+        for (var arg : String.join(" ", args).trim().split("\\s+")) {
+
+            if (arg.isEmpty()) {
+                continue;
+            }
+
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+
+            var separator = arg.indexOf('=');
+            values.put(separator < 0 ? arg.substring(2) : arg.substring(2, separator), separator < 0 ? "true" : arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+                values.containsKey("base-url") ? URI.create(values.get("base-url")) : null,
+                Integer.parseInt(values.getOrDefault("pessoas", "100000")),
+                Integer.parseInt(values.getOrDefault("min-enderecos", "1")),
+                Integer.parseInt(values.getOrDefault("max-enderecos", "10")),
+                Integer.parseInt(values.getOrDefault("threads", "64")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Boolean.parseBoolean(values.getOrDefault("read-only", "false")),
+                Pattern.compile(values.getOrDefault("routes", ".*")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("report", "target/load-test-report.json"))
+        );
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.edsonisaac.psattornatus.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.edsonisaac.psattornatus.reactive.ReactiveApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Runs the same read-only {@link LoadTest} against the MVC application and against its WebFlux and R2DBC variant, over
+ * the same seeded dataset and the same number of database connections, and prints the throughput and tail latency side
+ * by side. Only the routes both serve are exercised. Each client keeps its own connection, so 10k clients need a file
+ * descriptor limit well above 20k ({@code ulimit -n}). The R2DBC H2 driver runs its statements on the subscribing
+ * thread, so the database side only stops blocking with a truly non-blocking driver such as r2dbc-postgresql:
+ * <pre>
+ * mvn -Pload-test,reactive test-compile exec:exec -Dload.main=io.github.edsonisaac.psattornatus.loadtest.ReactiveComparison \
+ *     -Dload.args="--threads=10000"
+ * </pre>
+ */
+public class ReactiveComparison {
+
+    private static final String ROUTES = "--routes=GET\\s/pessoas(/\\{id\\}(/enderecos)?)?";
+
+    /**
+     * The entry point of the comparison.
+     *
+     * @param args the load test arguments
+     * @throws Exception the exception
+     */
+    public static void main(String[] args) throws Exception {
+
+        if (LoadTestOptions.parse(args).baseUrl() != null) {
+            throw new IllegalArgumentException("The comparison boots both applications itself, --base-url is not supported");
+        }
+
+        var results = new LinkedHashMap<String, List<RouteStats.Summary>>();
+
+        System.out.printf("%n=== mvc ===%n");
+        results.put("mvc", new LoadTest(options(args, "mvc")).run());
+
+        System.out.printf("%n=== reactive ===%n");
+        results.put("reactive", reactive(args));
+
+        print(results);
+
+        var report = Path.of("target/reactive-comparison.json");
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    /**
+     * Boot the reactive application, seed the database it shares with Flyway and load it as a remote server.
+     *
+     * @param args the load test arguments
+     * @return the summaries per route
+     * @throws Exception the exception
+     */
+    private static List<RouteStats.Summary> reactive(String[] args) throws Exception {
+
+        try (var context = ReactiveApplication.run("--server.port=0", "--spring.main.banner-mode=off")) {
+
+            var environment = context.getEnvironment();
+            var dataSource = new DriverManagerDataSource(environment.getRequiredProperty("spring.flyway.url"),
+                    environment.getProperty("spring.flyway.user"), environment.getProperty("spring.flyway.password"));
+
+            var start = System.nanoTime();
+            var dataset = new DatasetSeeder(options(args, "reactive")).seed(dataSource);
+            System.out.printf("Seeded %d pessoas in %.1f s%n", dataset.size(), (System.nanoTime() - start) / 1e9);
+
+            var baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            return new LoadTest(options(Stream.concat(Stream.of(args), Stream.of("--base-url=" + baseUrl)).toArray(String[]::new), "reactive")).run();
+        }
+    }
+
+    private static LoadTestOptions options(String[] args, String variant) {
+        return LoadTestOptions.parse(Stream.concat(Stream.of(args), Stream.of("--read-only", ROUTES, "--report=target/load-test-" + variant + ".json")).toArray(String[]::new));
+    }
+
+    private static void print(Map<String, List<RouteStats.Summary>> results) {
+
+        var mvc = results.get("mvc");
+        var reactive = results.get("reactive");
+
+        System.out.printf("%n%-42s %12s %12s %12s %12s %10s %10s%n", "route", "mvc/s", "reactive/s", "mvc p99", "reactive p99", "mvc err", "react err");
+
+        for (int i = 0; i < mvc.size(); i++) {
+
+            var m = mvc.get(i);
+            var r = reactive.get(i);
+
+            System.out.printf("%-42s %12.1f %12.1f %12.2f %12.2f %10d %10d%n",
+                    m.route(), m.throughput(), r.throughput(), m.p99(), r.p99(), m.errors(), r.errors());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.edsonisaac.psattornatus.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count of one route.
+ */
+public class RouteStats {
+
+    private final String route;
+    private final Histogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Instantiates a new Route stats.
+     *
+     * @param route the route template
+     */
+    public RouteStats(String route) {
+        this.route = route;
+    }
+
+    /**
+     * Record one response.
+     *
+     * @param nanos  the latency in nanoseconds
+     * @param status the http status
+     */
+    public void record(long nanos, int status) {
+
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), histogram.getHighestTrackableValue()));
+
+        if (status >= 400) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Record one request that never got a response.
+     */
+    public void fail() {
+        errors.increment();
+    }
+
+    /**
+     * Discard the warmup samples.
+     */
+    public void reset() {
+        histogram.reset();
+        errors.reset();
+    }
+
+    /**
+     * Summarize the route.
+     *
+     * @param seconds the measured seconds
+     * @return the summary
+     */
+    public Summary summarize(double seconds) {
+
+        return new Summary(
+                route,
+                histogram.getTotalCount(),
+                errors.sum(),
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0
+        );
+    }
+
+    /**
+     * The route summary, latencies in milliseconds.
+     *
+     * @param route      the route
+     * @param requests   the requests
+     * @param errors     the errors
+     * @param throughput the requests per second
+     * @param p50        the p50
+     * @param p90        the p90
+     * @param p99        the p99
+     * @param p999       the p999
+     * @param max        the max
+     */
+    public record Summary(
+            String route,
+            long requests,
+            long errors,
+            double throughput,
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double max
+    ) {
+    }
+}
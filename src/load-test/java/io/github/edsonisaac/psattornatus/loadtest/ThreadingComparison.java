@@ -0,0 +1,70 @@
+package io.github.edsonisaac.psattornatus.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Runs the same {@link LoadTest} against the application on platform threads and on virtual threads and prints the
+ * throughput and tail latency side by side. Use a client count well above Tomcat's 200 workers to see the difference:
+ * <pre>
+ * mvn -Pload-test test-compile exec:exec -Dload.main=io.github.edsonisaac.psattornatus.loadtest.ThreadingComparison \
+ *     -Dload.args="--threads=1000 --read-only"
+ * </pre>
+ */
+public class ThreadingComparison {
+
+    /**
+     * The entry point of the comparison.
+     *
+     * @param args the load test arguments
+     * @throws Exception the exception
+     */
+    public static void main(String[] args) throws Exception {
+
+        var results = new LinkedHashMap<String, List<RouteStats.Summary>>();
+
+        for (var virtual : List.of(false, true)) {
+
+            var mode = virtual ? "virtual" : "platform";
+            var options = LoadTestOptions.parse(Stream.concat(Stream.of(args), Stream.of("--report=target/load-test-" + mode + ".json")).toArray(String[]::new));
+
+            if (options.baseUrl() != null) {
+                throw new IllegalArgumentException("The comparison boots the application itself, --base-url is not supported");
+            }
+
+            System.out.printf("%n=== %s threads ===%n", mode);
+            results.put(mode, new LoadTest(options, "--spring.threads.virtual.enabled=" + virtual).run());
+        }
+
+        print(results);
+
+        var report = Path.of("target/threading-comparison.json");
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    private static void print(Map<String, List<RouteStats.Summary>> results) {
+
+        var platform = results.get("platform");
+        var virtual = results.get("virtual");
+
+        System.out.printf("%n%-42s %12s %12s %12s %12s %10s %10s%n", "route", "platform/s", "virtual/s", "platform p99", "virtual p99", "plat err", "virt err");
+
+        for (int i = 0; i < platform.size(); i++) {
+
+            var p = platform.get(i);
+            var v = virtual.get(i);
+
+            System.out.printf("%-42s %12.1f %12.1f %12.2f %12.2f %10d %10d%n",
+                    p.route(), p.throughput(), v.throughput(), p.p99(), v.p99(), p.errors(), v.errors());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package db.migration;
+
+import io.github.edsonisaac.psattornatus.utils.NomeUtils;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * nome_normalizado is now filled by the application (see NomeUtils), folding accents as well as case. Existing rows
+ * are backfilled with NomeUtils itself, so they get the same value as the nomes saved through the application; nomes
+ * that only differ by accents make the unique index fail and must be fixed before migrating.
+ */
+public class V3__normalize_nome extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+
+        var connection = context.getConnection();
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP INDEX uk_tb_pessoas_nome_normalizado");
+            statement.execute("ALTER TABLE tb_pessoas DROP COLUMN nome_normalizado");
+            statement.execute("ALTER TABLE tb_pessoas ADD COLUMN nome_normalizado VARCHAR(100)");
+        }
+
+        try (var select = connection.createStatement();
+             var update = connection.prepareStatement("UPDATE tb_pessoas SET nome_normalizado = ? WHERE id = ?")) {
+
+            select.setFetchSize(BATCH_SIZE);
+
+            try (var pessoas = select.executeQuery("SELECT id, nome FROM tb_pessoas WHERE nome IS NOT NULL")) {
+
+                var lote = 0;
+
+                while (pessoas.next()) {
+
+                    update.setString(1, NomeUtils.normalize(pessoas.getString("nome")));
+                    update.setObject(2, pessoas.getObject("id", UUID.class));
+                    update.addBatch();
+
+                    if (++lote == BATCH_SIZE) {
+                        update.executeBatch();
+                        lote = 0;
+                    }
+                }
+
+                if (lote > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE UNIQUE INDEX uk_tb_pessoas_nome_normalizado ON tb_pessoas (nome_normalizado)");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The type Cache config.
+ * <p>
+ * The caching advice runs outside the transactional one, so evictions happen only after the write has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    /**
+     * The constant PESSOAS.
+     */
+    public static final String PESSOAS = "pessoas";
+}
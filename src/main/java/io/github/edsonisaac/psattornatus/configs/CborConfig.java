@@ -0,0 +1,51 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+
+/**
+ * The type Cbor config.
+ * <p>
+ * Clients sending {@code Accept: application/cbor} get the same documents as JSON clients, encoded in CBOR: UUIDs as
+ * 16 raw bytes, dates as epoch days and instants as epoch milliseconds. Request bodies may be sent in CBOR as well.
+ */
+@Configuration
+public class CborConfig {
+
+    /**
+     * Cbor http message converter, replacing the default one so it shares the configuration of the JSON mapper.
+     *
+     * @param builder the builder
+     * @return the mapping jackson 2 cbor http message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(compact(builder.factory(new CBORFactory()).build()));
+    }
+
+    /**
+     * Write dates and instants as numbers instead of text. UUIDs need nothing, as Jackson already writes them as
+     * binary to formats that support it.
+     *
+     * @param mapper the mapper
+     * @return the object mapper
+     */
+    public static ObjectMapper compact(ObjectMapper mapper) {
+
+        mapper.configOverride(LocalDate.class).setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.NUMBER_INT));
+
+        return mapper
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.edsonisaac.psattornatus.filters.ConcurrencyLimitFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * The type Concurrency config.
+ * <p>
+ * Virtual threads remove the Tomcat worker pool as the natural bound on concurrent requests, so every request could
+ * end up waiting on the connection pool. With {@code spring.threads.virtual.enabled=true} the API admits at most
+ * {@code app.concurrency.max-requests} requests at a time and sheds the excess with 503 instead. The limit defaults to
+ * the maximum size of the (primary) connection pool, so admitted requests do not queue for connections; a larger limit
+ * is only worth it when many requests are answered without one, from the caches, and is reported at startup.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(ConcurrencyProperties.class)
+public class ConcurrencyConfig {
+
+    /**
+     * Concurrency limit filter registration.
+     *
+     * @param properties the properties
+     * @param dataSource the data source
+     * @param mapper     the mapper
+     * @return the filter registration bean
+     * @throws SQLException the sql exception
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyProperties properties, DataSource dataSource,
+                                                                                 ObjectMapper mapper) throws SQLException {
+
+        var poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        var maxRequests = properties.maxRequests() != null ? properties.maxRequests() : poolSize;
+
+        if (maxRequests > poolSize) {
+            log.warn("app.concurrency.max-requests={} admits more requests than the {} pooled connections, the excess waits for a connection",
+                    maxRequests, poolSize);
+        }
+
+        var registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxRequests, properties.acquireTimeout(), mapper));
+        registration.addUrlPatterns("/pessoas", "/pessoas/*");
+
+        return registration;
+    }
+}
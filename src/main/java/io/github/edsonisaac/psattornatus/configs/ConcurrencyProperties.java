@@ -0,0 +1,20 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Admission limits applied to the API when requests run on virtual threads.
+ *
+ * @param maxRequests    the maximum number of requests handled at the same time, by default the maximum size of the
+ *                       connection pool
+ * @param acquireTimeout how long a request waits for a slot before being rejected with 503
+ */
+@ConfigurationProperties("app.concurrency")
+public record ConcurrencyProperties(
+        Integer maxRequests,
+        @DefaultValue("2s") Duration acquireTimeout
+) {
+}
@@ -0,0 +1,111 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The type Data source config.
+ * <p>
+ * The datasource is chosen by profile: {@code h2mem} (the default), {@code h2file} or {@code postgres}. The pool and
+ * batching settings they share live in {@code application.yml}; the effective ones are logged once the application is
+ * ready, so a benchmark run records what it ran against. Credentials in the JDBC url and properties are masked.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor(onConstructor_= {@Autowired})
+public class DataSourceConfig {
+
+    private static final String[] HIBERNATE_SETTINGS = {
+            AvailableSettings.STATEMENT_BATCH_SIZE,
+            AvailableSettings.BATCH_VERSIONED_DATA,
+            AvailableSettings.ORDER_INSERTS,
+            AvailableSettings.ORDER_UPDATES,
+            AvailableSettings.STATEMENT_FETCH_SIZE,
+            AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE,
+            AvailableSettings.IN_CLAUSE_PARAMETER_PADDING
+    };
+
+    /**
+     * The data source properties logged as they are: statement caching, batching and timeout settings, which hold no
+     * secrets. The others, such as credentials or tokens given as JDBC properties, are masked.
+     */
+    private static final Set<String> POOL_SETTINGS = Set.of(
+            "prepareThreshold",
+            "preparedStatementCacheQueries",
+            "preparedStatementCacheSizeMiB",
+            "reWriteBatchedInserts",
+            "connectTimeout",
+            "socketTimeout",
+            "loginTimeout"
+    );
+
+    /**
+     * Parameters of the JDBC url holding credentials, as in {@code ?password=...} or {@code ;PASSWORD=...}.
+     */
+    private static final Pattern URL_SECRETS = Pattern.compile("(?i)((?:user|password|pwd|token|secret|key)[a-z]*=)[^;&]*");
+
+    private static final String MASK = "******";
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Log the effective pool and batching settings.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        log.info("Datasource settings: {}", settings());
+    }
+
+    /**
+     * The effective pool and batching settings.
+     *
+     * @return the settings by name
+     */
+    public Map<String, Object> settings() {
+
+        var settings = new LinkedHashMap<String, Object>();
+
+        try {
+            var pool = dataSource.unwrap(HikariDataSource.class);
+
+            settings.put("pool.name", pool.getPoolName());
+            settings.put("pool.url", pool.getJdbcUrl() != null ? URL_SECRETS.matcher(pool.getJdbcUrl()).replaceAll("$1" + MASK) : null);
+            settings.put("pool.maximumPoolSize", pool.getMaximumPoolSize());
+            settings.put("pool.minimumIdle", pool.getMinimumIdle());
+            settings.put("pool.connectionTimeout", pool.getConnectionTimeout());
+            settings.put("pool.maxLifetime", pool.getMaxLifetime());
+            settings.put("pool.keepaliveTime", pool.getKeepaliveTime());
+            pool.getDataSourceProperties().forEach((name, value) -> settings.put("pool." + name,
+                    POOL_SETTINGS.contains(name.toString()) ? value : MASK));
+        } catch (SQLException ex) {
+            settings.put("pool", dataSource.getClass().getName());
+        }
+
+        var properties = entityManagerFactory.getProperties();
+
+        settings.put(AvailableSettings.DIALECT, entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getClass().getName());
+
+        for (var name : HIBERNATE_SETTINGS) {
+            settings.put(name, properties.get(name));
+        }
+
+        return settings;
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The type Historico config.
+ * <p>
+ * Every committed write of a pessoa or endereco is queued in memory and written to {@code tb_historico} in batches by
+ * a background thread, so the writes themselves never wait on the historico. The queue is bounded by
+ * {@code app.historico.queue-capacity}; its size and the changes dropped when it is full are exposed as metrics.
+ */
+@Configuration
+@EnableConfigurationProperties(HistoricoProperties.class)
+public class HistoricoConfig {
+}
@@ -0,0 +1,21 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * How the changes of pessoas and enderecos are queued and written to the historico.
+ *
+ * @param queueCapacity the maximum number of changes waiting to be written
+ * @param batchSize     the maximum number of changes written in one transaction
+ * @param offerTimeout  how long a committed write waits for room in a full queue before its change is dropped
+ */
+@ConfigurationProperties("app.historico")
+public record HistoricoProperties(
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("10ms") Duration offerTimeout
+) {
+}
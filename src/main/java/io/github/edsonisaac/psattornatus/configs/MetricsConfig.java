@@ -0,0 +1,53 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import io.github.edsonisaac.psattornatus.filters.SqlStatementMetricsFilter;
+import io.github.edsonisaac.psattornatus.utils.SqlStatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The type Metrics config.
+ * <p>
+ * Requests are timed by Spring MVC and repository methods by Spring Data. This adds the {@code @Timed} service
+ * methods and the number of SQL statements per request, all exposed on {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Timed aspect.
+     *
+     * @param registry the registry
+     * @return the timed aspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Register the sql statement counter, unless another statement inspector was configured.
+     *
+     * @return the hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    /**
+     * Sql statement metrics filter registration.
+     *
+     * @param registry the registry
+     * @return the filter registration bean
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry registry) {
+        return new FilterRegistrationBean<>(new SqlStatementMetricsFilter(registry));
+    }
+}
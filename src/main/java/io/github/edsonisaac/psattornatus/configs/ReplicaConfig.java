@@ -0,0 +1,126 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.edsonisaac.psattornatus.filters.ConsistencyWindowFilter;
+import io.github.edsonisaac.psattornatus.utils.ReplicaRoutingDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+
+/**
+ * The type Replica config.
+ * <p>
+ * With {@code app.datasource.replicas} set, read-only transactions run on the replicas and every other one on the
+ * primary. The physical connection is only taken when the first statement of a transaction runs, once it is known to
+ * be read-only, and it is given back at the end of every transaction, so one request may use both.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replicas")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig {
+
+    /**
+     * Replica routing data source, holding the primary and replica pools.
+     *
+     * @param dataSourceProperties the data source properties
+     * @param replicaProperties    the replica properties
+     * @param environment          the environment
+     * @return the replica routing data source
+     */
+    @Bean(autowireCandidate = false)
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties replicaProperties, Environment environment) {
+
+        var primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        var replicas = new ArrayList<HikariDataSource>();
+
+        for (var url : replicaProperties.replicas()) {
+
+            var config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setJdbcUrl(url);
+            config.setPoolName(primary.getPoolName() + "-replica-" + replicas.size());
+
+            replicas.add(new HikariDataSource(config));
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties.selection(), replicaProperties.consistencyWindow());
+    }
+
+    /**
+     * Data source, routing each connection when its first statement runs.
+     *
+     * @param dataSourceProperties the data source properties
+     * @param replicaProperties    the replica properties
+     * @param environment          the environment
+     * @return the data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties, Environment environment) {
+
+        var routing = replicaRoutingDataSource(dataSourceProperties, replicaProperties, environment);
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Release the connection after every transaction, instead of holding it for the whole session, so the next
+     * transaction of an open session is routed again.
+     *
+     * @return the hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * Mark the thread of every committed read-write transaction, opening its consistency window.
+     *
+     * @return the transaction execution listener
+     */
+    @Bean
+    public TransactionExecutionListener writeMarkListener() {
+        return new TransactionExecutionListener() {
+
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+
+                if (commitFailure == null && !transaction.isReadOnly()) {
+                    ReplicaRoutingDataSource.markWrite();
+                }
+            }
+        };
+    }
+
+    /**
+     * Consistency window filter registration.
+     *
+     * @return the filter registration bean
+     */
+    @Bean
+    public FilterRegistrationBean<ConsistencyWindowFilter> consistencyWindowFilter() {
+        return new FilterRegistrationBean<>(new ConsistencyWindowFilter());
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import io.github.edsonisaac.psattornatus.utils.ReplicaRoutingDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas of the datasource, sharing its credentials and pool settings.
+ *
+ * @param replicas          the jdbc urls of the replicas
+ * @param selection         how a replica is chosen for each read-only transaction
+ * @param consistencyWindow how long a request reads from the primary after its own writes
+ */
+@ConfigurationProperties("app.datasource")
+public record ReplicaProperties(
+        @DefaultValue List<String> replicas,
+        @DefaultValue("round-robin") ReplicaRoutingDataSource.Selection selection,
+        @DefaultValue("1s") Duration consistencyWindow
+) {
+}
@@ -0,0 +1,16 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The type Response cache config.
+ * <p>
+ * The pessoa and its enderecos are sent from the bytes serialized for the last request of the same versao, in JSON or
+ * CBOR, instead of being serialized again. The cache is bounded by the total size of the bytes kept,
+ * {@code app.response-cache.maximum-size}, rather than by a number of entries, as a pessoa may have many enderecos.
+ */
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+}
@@ -0,0 +1,16 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * How many serialized responses are kept.
+ *
+ * @param maximumSize the maximum total size of the serialized responses
+ */
+@ConfigurationProperties("app.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("64MB") DataSize maximumSize
+) {
+}
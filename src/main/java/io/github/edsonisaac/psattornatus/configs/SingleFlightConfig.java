@@ -0,0 +1,52 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import io.github.edsonisaac.psattornatus.dtos.EnderecosDTO;
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
+import io.github.edsonisaac.psattornatus.utils.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * The type Single flight config.
+ * <p>
+ * Concurrent reads of the same pessoa share one query: the versao checked by every conditional request and the
+ * enderecos. The pessoa itself is read through the pessoas cache, whose loads are already shared.
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    /**
+     * The constant VERSOES.
+     */
+    public static final String VERSOES = "versoes";
+
+    /**
+     * The constant ENDERECOS.
+     */
+    public static final String ENDERECOS = "enderecos";
+
+    /**
+     * Versoes single flight, by pessoa id.
+     *
+     * @param registry the registry
+     * @return the single flight
+     */
+    @Bean
+    public SingleFlight<UUID, VersaoDTO> versoesSingleFlight(MeterRegistry registry) {
+        return new SingleFlight<>(registry, VERSOES);
+    }
+
+    /**
+     * Enderecos single flight, by pessoa id.
+     *
+     * @param registry the registry
+     * @return the single flight
+     */
+    @Bean
+    public SingleFlight<UUID, EnderecosDTO> enderecosSingleFlight(MeterRegistry registry) {
+        return new SingleFlight<>(registry, ENDERECOS);
+    }
+}
@@ -1,9 +1,14 @@
 package io.github.edsonisaac.psattornatus.controllers;
 
 import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.exceptions.PreconditionFailedException;
 import io.github.edsonisaac.psattornatus.exceptions.StandardError;
 import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.github.edsonisaac.psattornatus.utils.ValidationUtils;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
@@ -18,6 +23,51 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 @ControllerAdvice
 public class ExceptionHandlerController {
 
+    /**
+     * Concurrency failure exception response entity, when a write kept losing to concurrent writes of the same row.
+     *
+     * @param ex      the ex
+     * @param request the request
+     * @return the response entity
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity concurrencyFailureException(ConcurrencyFailureException ex, HttpServletRequest request) {
+
+        var error = new StandardError(
+                System.currentTimeMillis(),
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                MessageUtils.CONCURRENT_UPDATE,
+                request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Data integrity violation exception response entity. A nome registered concurrently, or missed by the nome
+     * filter, is only caught by the unique index and is reported like any other duplicated nome.
+     *
+     * @param ex      the ex
+     * @param request the request
+     * @return the response entity
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity dataIntegrityViolationException(DataIntegrityViolationException ex, HttpServletRequest request) {
+
+        if (ValidationUtils.isDuplicatedNome(ex)) {
+            return validationException(new ValidationException(MessageUtils.PESSOA_ALREADY_EXISTS), request);
+        }
+
+        var error = new StandardError(
+                System.currentTimeMillis(),
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                MessageUtils.DATA_INTEGRITY_VIOLATION,
+                request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     /**
      * Method argument not valid exception response entity.
      *
@@ -80,6 +130,26 @@ public class ExceptionHandlerController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Precondition failed exception response entity.
+     *
+     * @param ex      the ex
+     * @param request the request
+     * @return the response entity
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity preconditionFailedException(PreconditionFailedException ex, HttpServletRequest request) {
+
+        var error = new StandardError(
+                System.currentTimeMillis(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                ex.getMessage(),
+                request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
     /**
      * Validation exception response entity.
      *
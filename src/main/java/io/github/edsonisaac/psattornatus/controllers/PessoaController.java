@@ -1,21 +1,50 @@
 package io.github.edsonisaac.psattornatus.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.ImportacaoDTO;
+import io.github.edsonisaac.psattornatus.dtos.ImportacaoLinhaDTO;
+import io.github.edsonisaac.psattornatus.dtos.LotePessoasDTO;
 import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaFiltroDTO;
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
 import io.github.edsonisaac.psattornatus.entities.Endereco;
 import io.github.edsonisaac.psattornatus.entities.Pessoa;
 import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
 import io.github.edsonisaac.psattornatus.services.EnderecoService;
+import io.github.edsonisaac.psattornatus.services.HistoricoService;
+import io.github.edsonisaac.psattornatus.services.PessoaSearchService;
 import io.github.edsonisaac.psattornatus.services.PessoaService;
+import io.github.edsonisaac.psattornatus.services.ResponseCacheService;
+import io.github.edsonisaac.psattornatus.utils.CursorUtils;
+import io.github.edsonisaac.psattornatus.utils.EtagUtils;
 import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.github.edsonisaac.psattornatus.utils.ValidationUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * The type Pessoa controller.
@@ -25,77 +54,404 @@ import java.util.UUID;
 @RequiredArgsConstructor(onConstructor_= {@Autowired})
 public class PessoaController {
 
+    /**
+     * The constant MERGE_PATCH_JSON_VALUE.
+     */
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    /**
+     * The constant NEXT_CURSOR_HEADER.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * The constant TOTAL_COUNT_HEADER.
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private static final Set<String> ENDERECO_PATCH_FIELDS = Set.of("logradouro", "numero", "cidade", "cep", "principal");
+    private static final Set<String> PESSOA_PATCH_FIELDS = Set.of("nome", "dataNascimento");
+
     private final EnderecoService enderecoService;
+    private final HistoricoService historicoService;
+    private final PessoaSearchService pessoaSearchService;
     private final PessoaService pessoaService;
+    private final ResponseCacheService responseCache;
+    private final ObjectMapper mapper;
 
     /**
      * Find all response entity.
      *
+     * @param cursor the continuation token returned by the previous page
+     * @param size   the page size
      * @return the response entity
      */
     @GetMapping
-    public ResponseEntity findAll() {
+    public ResponseEntity findAll(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") int size) {
+
+        var pessoas = pessoaService.findAll(CursorUtils.decode(cursor), size);
+        var response = ResponseEntity.status(HttpStatus.OK);
+
+        if (pessoas.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, CursorUtils.encode(pessoas.get(pessoas.size() - 1).id()));
+        }
+
+        return response.body(pessoas);
+    }
+
+    /**
+     * Stream every pessoa as newline delimited JSON.
+     *
+     * @param size the number of rows fetched per round trip
+     * @return the response entity
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findAllAsStream(@RequestParam(defaultValue = "500") int size) {
+
+        if (size < 1 || size > PessoaService.MAX_PAGE_SIZE) {
+            throw new ValidationException(MessageUtils.PAGE_SIZE_INVALID);
+        }
+
+        var writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+        StreamingResponseBody body = out -> pessoaService.forEach(size, p -> {
+            try {
+                out.write(writer.writeValueAsBytes(p));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Search pessoas by nome prefix or misspelled nome, cidade, cep prefix and data de nascimento range. The total
+     * number of matches is returned in the X-Total-Count header.
+     *
+     * @param nome          the nome
+     * @param cidade        the cidade
+     * @param cep           the cep prefix
+     * @param nascimentoDe  the first data de nascimento
+     * @param nascimentoAte the last data de nascimento
+     * @param page          the page, from zero
+     * @param size          the page size
+     * @return the response entity
+     */
+    @GetMapping("/search")
+    public ResponseEntity search(@RequestParam(required = false) String nome,
+                                 @RequestParam(required = false) String cidade,
+                                 @RequestParam(required = false) String cep,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nascimentoDe,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nascimentoAte,
+                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(defaultValue = "20") int size) {
+
+        var resultado = pessoaSearchService.search(new PessoaFiltroDTO(nome, cidade, cep, nascimentoDe, nascimentoAte), page, size);
+        var pessoas = pessoaService.findAllById(resultado.ids());
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(resultado.total()))
+                .body(pessoas);
+    }
+
+    /**
+     * Find many pessoas by id in one request. Repeated ids are looked up once; the pessoas found come in the order of
+     * the ids, followed by the ids of no pessoa.
+     *
+     * @param ids the ids
+     * @return the response entity
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity batchGet(@RequestBody List<UUID> ids) {
+
+        var distintos = ids.stream().distinct().toList();
 
-        var pessoas = pessoaService.findAll().stream().map(p -> PessoaDTO.toDTO(p)).toList();
-        return ResponseEntity.status(HttpStatus.OK).body(pessoas);
+        return ResponseEntity.status(HttpStatus.OK).body(LotePessoasDTO.of(distintos, pessoaService.findAllById(distintos)));
     }
 
     /**
-     * Find by id response entity.
+     * Find by id response entity. A conditional request is answered from the versao of the pessoa alone, with 304
+     * when the client already has it; otherwise the bytes serialized for its versao are sent when they are kept.
      *
-     * @param id the id
+     * @param id      the id
+     * @param headers the headers
      * @return the response entity
      */
     @GetMapping("/{id}")
-    public ResponseEntity findById(@PathVariable UUID id) {
+    public ResponseEntity findById(@PathVariable UUID id, @RequestHeader HttpHeaders headers) {
+
+        if (!headers.getIfNoneMatch().isEmpty() || headers.getIfModifiedSince() != -1) {
+
+            var versao = pessoaService.findVersaoById(id);
+
+            if (isNotModified(headers, versao)) {
+                return notModified(headers, versao);
+            }
+        }
 
-        var pessoa = PessoaDTO.toDTO(pessoaService.findById(id));
-        return ResponseEntity.status(HttpStatus.OK).body(pessoa);
+        var pessoa = pessoaService.findDTOById(id);
+
+        return serialized(ResponseEntity.status(HttpStatus.OK)
+                .eTag(EtagUtils.of(pessoa.versao(), headers.getAccept()))
+                .lastModified(pessoa.dataAtualizacao())
+                .varyBy(HttpHeaders.ACCEPT), ResponseCacheService.Recurso.PESSOA, id, pessoa.versao(), headers, () -> pessoa);
+    }
+
+    /**
+     * Find the historico of the pessoa: the state saved by its latest writes and by those of its enderecos, newest
+     * first. Writes show up here shortly after they commit.
+     *
+     * @param id   the id
+     * @param size the maximum number of changes
+     * @return the response entity
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity findHistory(@PathVariable UUID id, @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(historicoService.findByPessoa(id, size));
     }
 
     /**
      * Save response entity.
      *
-     * @param pessoa the pessoa
+     * @param pessoa  the pessoa
+     * @param headers the headers
      * @return the response entity
      */
     @PostMapping
-    public ResponseEntity save(@RequestBody @Valid Pessoa pessoa) {
+    public ResponseEntity save(@RequestBody @Valid Pessoa pessoa, @RequestHeader HttpHeaders headers) {
 
         var pessoaSaved = PessoaDTO.toDTO(pessoaService.save(pessoa));
-        return ResponseEntity.status(HttpStatus.CREATED).body(pessoaSaved);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(EtagUtils.of(pessoaSaved.versao(), headers.getAccept())).body(pessoaSaved);
+    }
+
+    /**
+     * Import many pessoas from a JSON array or from newline delimited JSON.
+     *
+     * @param body the body
+     * @return the response entity
+     * @throws IOException the io exception
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity saveAll(InputStream body) throws IOException {
+
+        var linhas = new ArrayList<ImportacaoLinhaDTO>();
+        var lote = new LinkedHashMap<Integer, Pessoa>();
+
+        try (MappingIterator<Pessoa> iterator = mapper.readerFor(Pessoa.class).readValues(body)) {
+
+            for (int linha = 1; ; linha++) {
+
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+
+                    lote.put(linha, iterator.nextValue());
+                } catch (JsonMappingException ex) {
+                    linhas.add(ImportacaoLinhaDTO.rejeitada(linha, MessageUtils.LINHA_INVALIDA));
+                    continue;
+                } catch (JsonProcessingException ex) {
+                    linhas.add(ImportacaoLinhaDTO.rejeitada(linha, MessageUtils.LINHA_INVALIDA));
+                    break;
+                }
+
+                if (lote.size() == PessoaService.IMPORT_CHUNK_SIZE) {
+                    importar(lote, linhas);
+                }
+            }
+        }
+
+        importar(lote, linhas);
+        linhas.sort(Comparator.comparing(ImportacaoLinhaDTO::linha));
+
+        return ResponseEntity.status(HttpStatus.OK).body(ImportacaoDTO.of(linhas));
+    }
+
+    /**
+     * Import the chunk and record the result of every line. When the chunk breaks a constraint, which is rolled back
+     * as a whole, its lines are imported again one by one, so only the lines breaking it are rejected.
+     *
+     * @param lote   the lote
+     * @param linhas the linhas
+     */
+    private void importar(Map<Integer, Pessoa> lote, List<ImportacaoLinhaDTO> linhas) {
+
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        try {
+            linhas.addAll(pessoaService.saveAll(lote));
+        } catch (DataIntegrityViolationException ex) {
+
+            if (lote.size() == 1) {
+                lote.keySet().forEach(linha -> linhas.add(ImportacaoLinhaDTO.rejeitada(linha, ValidationUtils.message(ex))));
+            } else {
+                lote.forEach((linha, pessoa) -> importar(new LinkedHashMap<>(Map.of(linha, pessoa)), linhas));
+            }
+        }
+
+        lote.clear();
     }
 
     /**
-     * Update response entity.
+     * Update response entity. With If-Match, the pessoa is only updated while its ETag is one of the given ones, and
+     * 412 is answered otherwise.
      *
-     * @param id     the id
-     * @param pessoa the pessoa
+     * @param id      the id
+     * @param pessoa  the pessoa
+     * @param headers the headers
      * @return the response entity
      */
     @PutMapping("/{id}")
-    public ResponseEntity update(@PathVariable UUID id, @RequestBody @Valid Pessoa pessoa) {
+    public ResponseEntity update(@PathVariable UUID id, @RequestBody @Valid Pessoa pessoa, @RequestHeader HttpHeaders headers) {
 
         if (pessoa.getId().equals(id)) {
-            var pessoaUpdated = PessoaDTO.toDTO(pessoaService.save(pessoa));
-            return ResponseEntity.status(HttpStatus.OK).body(pessoaUpdated);
+            var pessoaUpdated = PessoaDTO.toDTO(pessoaService.save(pessoa, EtagUtils.versoes(headers.getIfMatch())));
+            return ResponseEntity.status(HttpStatus.OK).eTag(EtagUtils.of(pessoaUpdated.versao(), headers.getAccept())).body(pessoaUpdated);
         }
 
         throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
     }
 
+    /**
+     * Patch response entity. The body is a JSON merge patch (RFC 7396) of the nome and the data de nascimento, and
+     * only the fields present in it are changed. With If-Match, the pessoa is only changed while its ETag is one of
+     * the given ones, and 412 is answered otherwise.
+     *
+     * @param id      the id
+     * @param patch   the patch
+     * @param headers the headers
+     * @return the response entity
+     */
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity patch(@PathVariable UUID id, @RequestBody JsonNode patch, @RequestHeader HttpHeaders headers) {
+
+        var pessoaPatched = PessoaDTO.toDTO(pessoaService.patch(id, mergePatch(patch, PESSOA_PATCH_FIELDS),
+                EtagUtils.versoes(headers.getIfMatch())));
+
+        return ResponseEntity.status(HttpStatus.OK).eTag(EtagUtils.of(pessoaPatched.versao(), headers.getAccept())).body(pessoaPatched);
+    }
+
+    /**
+     * Merge patch of the given fields. The patch is checked before anything is loaded, and applied over the loaded
+     * entity, so fields absent from it keep their values.
+     *
+     * @param <T>    the type parameter
+     * @param patch  the patch
+     * @param fields the fields allowed in the patch
+     * @return the consumer
+     */
+    private <T> Consumer<T> mergePatch(JsonNode patch, Set<String> fields) {
+
+        if (patch == null || !patch.isObject() || patch.isEmpty()) {
+            throw new ValidationException(MessageUtils.PATCH_INVALID);
+        }
+
+        patch.fieldNames().forEachRemaining(field -> {
+            if (!fields.contains(field)) {
+                throw new ValidationException(MessageUtils.PATCH_INVALID);
+            }
+        });
+
+        return entity -> {
+            try {
+                mapper.readerForUpdating(entity).readValue(patch);
+            } catch (IOException ex) {
+                throw new ValidationException(MessageUtils.PATCH_INVALID);
+            }
+        };
+    }
+
+    /**
+     * Whether the client already has the given versao in the representation it asks for, by If-None-Match or else by
+     * If-Modified-Since.
+     *
+     * @param headers the headers
+     * @param versao  the versao
+     * @return the boolean
+     */
+    private static boolean isNotModified(HttpHeaders headers, VersaoDTO versao) {
+
+        if (!headers.getIfNoneMatch().isEmpty()) {
+            return EtagUtils.matches(headers.getIfNoneMatch(), EtagUtils.of(versao.versao(), headers.getAccept()));
+        }
+
+        return headers.getIfModifiedSince() != -1 && versao.dataAtualizacao().getEpochSecond() <= headers.getIfModifiedSince() / 1000;
+    }
+
+    /**
+     * Not modified response entity.
+     *
+     * @param headers the headers
+     * @param versao  the versao
+     * @return the response entity
+     */
+    private static ResponseEntity notModified(HttpHeaders headers, VersaoDTO versao) {
+
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(EtagUtils.of(versao.versao(), headers.getAccept()))
+                .lastModified(versao.dataAtualizacao())
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    /**
+     * Serialized response entity: the bytes kept for the versao of the pessoa, written as they are, or the body
+     * serialized now and kept. When neither JSON nor CBOR is acceptable the body is left to content negotiation.
+     *
+     * @param builder the builder
+     * @param recurso the recurso
+     * @param id      the pessoa id
+     * @param versao  the versao of the pessoa
+     * @param headers the headers
+     * @param body    the body
+     * @return the response entity
+     */
+    private ResponseEntity serialized(ResponseEntity.BodyBuilder builder, ResponseCacheService.Recurso recurso, UUID id,
+                                      long versao, HttpHeaders headers, Supplier<?> body) {
+
+        var tipo = ResponseCacheService.tipo(headers.getAccept());
+
+        if (tipo == null) {
+            return builder.body(body.get());
+        }
+
+        return builder.contentType(tipo).body(responseCache.get(recurso, id, versao, tipo, body));
+    }
+
     ////////////////////////////////// ENDEREÇO //////////////////////////////////
 
     /**
-     * Find all response entity.
+     * Find all response entity. The enderecos are part of the pessoa, so they share its versao as validator: a
+     * conditional request is answered from the versao alone, otherwise the enderecos are read with the versao in one
+     * query and the bytes serialized for that versao are sent when they are kept.
      *
-     * @param id the id
+     * @param id      the id
+     * @param headers the headers
      * @return the response entity
      */
     @GetMapping("/{id}/enderecos")
-    public ResponseEntity findAll(@PathVariable UUID id) {
-        var enderecos = enderecoService.findByPessoa(id).stream().map(e -> EnderecoDTO.toDTO(e)).toList();
-        return ResponseEntity.status(HttpStatus.OK).body(enderecos);
+    public ResponseEntity findAll(@PathVariable UUID id, @RequestHeader HttpHeaders headers) {
+
+        if (!headers.getIfNoneMatch().isEmpty() || headers.getIfModifiedSince() != -1) {
+
+            var versao = pessoaService.findVersaoById(id);
+
+            if (isNotModified(headers, versao)) {
+                return notModified(headers, versao);
+            }
+        }
+
+        var enderecos = enderecoService.findByPessoa(id);
+
+        return serialized(ResponseEntity.status(HttpStatus.OK)
+                .eTag(EtagUtils.of(enderecos.versao(), headers.getAccept()))
+                .lastModified(enderecos.dataAtualizacao())
+                .varyBy(HttpHeaders.ACCEPT), ResponseCacheService.Recurso.ENDERECOS, id, enderecos.versao(), headers,
+                enderecos::enderecos);
     }
 
     /**
@@ -112,31 +468,24 @@ public class PessoaController {
             throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
         }
 
-        if (endereco.getPrincipal()) {
-
-            var enderecos = enderecoService.findByPessoa(id);
-
-            enderecos.forEach(e -> {
-                e.setPrincipal(false);
-                enderecoService.save(e);
-            });
-        }
-
         var enderecoSaved = EnderecoDTO.toDTO(enderecoService.save(endereco));
 
         return ResponseEntity.status(HttpStatus.CREATED).body(enderecoSaved);
     }
 
     /**
-     * Update response entity.
+     * Update response entity. With If-Match, the endereco is only updated while the ETag of the pessoa, as returned
+     * with its enderecos, is one of the given ones, and 412 is answered otherwise.
      *
      * @param id         the id
      * @param enderecoId the endereco id
      * @param endereco   the endereco
+     * @param headers    the headers
      * @return the response entity
      */
     @PutMapping("/{id}/enderecos/{enderecoId}")
-    public ResponseEntity update(@PathVariable UUID id, @PathVariable UUID enderecoId, @RequestBody @Valid Endereco endereco) {
+    public ResponseEntity update(@PathVariable UUID id, @PathVariable UUID enderecoId, @RequestBody @Valid Endereco endereco,
+                                 @RequestHeader HttpHeaders headers) {
 
         if (id == null || endereco.getPessoa().getId() == null || !endereco.getPessoa().getId().equals(id)) {
             throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
@@ -146,18 +495,29 @@ public class PessoaController {
             throw new ObjectNotFoundException(MessageUtils.ENDERECO_NOT_FOUND);
         }
 
-        if (endereco.getPrincipal()) {
+        var enderecoUpdated = EnderecoDTO.toDTO(enderecoService.save(endereco, EtagUtils.versoes(headers.getIfMatch())));
 
-            var enderecos = enderecoService.findByPessoa(id);
+        return ResponseEntity.status(HttpStatus.OK).body(enderecoUpdated);
+    }
 
-            enderecos.forEach(e -> {
-                e.setPrincipal(false);
-                enderecoService.save(e);
-            });
-        }
+    /**
+     * Patch response entity. The body is a JSON merge patch (RFC 7396) of the fields of the endereco, and only the
+     * fields present in it are changed. With If-Match, the endereco is only changed while the ETag of the pessoa is
+     * one of the given ones, and 412 is answered otherwise.
+     *
+     * @param id         the id
+     * @param enderecoId the endereco id
+     * @param patch      the patch
+     * @param headers    the headers
+     * @return the response entity
+     */
+    @PatchMapping(value = "/{id}/enderecos/{enderecoId}", consumes = MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity patch(@PathVariable UUID id, @PathVariable UUID enderecoId, @RequestBody JsonNode patch,
+                                @RequestHeader HttpHeaders headers) {
 
-        var enderecoUpdated = EnderecoDTO.toDTO(enderecoService.save(endereco));
+        var enderecoPatched = EnderecoDTO.toDTO(enderecoService.patch(id, enderecoId, mergePatch(patch, ENDERECO_PATCH_FIELDS),
+                EtagUtils.versoes(headers.getIfMatch())));
 
-        return ResponseEntity.status(HttpStatus.OK).body(enderecoUpdated);
+        return ResponseEntity.status(HttpStatus.OK).body(enderecoPatched);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The type Enderecos dto, the enderecos of a pessoa with the versao of the pessoa they were read at.
+ *
+ * @param enderecos       the enderecos
+ * @param versao          the versao of the pessoa
+ * @param dataAtualizacao the data atualizacao of the pessoa
+ */
+public record EnderecosDTO(
+        List<EnderecoDTO> enderecos,
+        long versao,
+        Instant dataAtualizacao
+) implements Serializable {
+
+    /**
+     * To dto enderecos.
+     *
+     * @param rows the rows of one pessoa joined with its enderecos
+     * @return the enderecos dto
+     */
+    public static EnderecosDTO toDTO(List<PessoaEnderecoDTO> rows) {
+
+        var enderecos = rows.stream()
+                .filter(row -> row.enderecoId() != null)
+                .map(row -> new EnderecoDTO(row.enderecoId(), row.logradouro(), row.numero(), row.cidade(), row.cep(), row.principal()))
+                .toList();
+
+        return new EnderecosDTO(enderecos, rows.get(0).versao(), rows.get(0).dataAtualizacao());
+    }
+}
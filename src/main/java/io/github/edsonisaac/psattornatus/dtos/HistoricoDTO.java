@@ -0,0 +1,26 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.github.edsonisaac.psattornatus.entities.Historico;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The type Historico dto.
+ *
+ * @param id            the id
+ * @param tipo          the tipo
+ * @param entidadeId    the id of the pessoa or endereco changed
+ * @param dataAlteracao the data alteracao
+ * @param dados         the saved state, as JSON
+ */
+public record HistoricoDTO(
+        UUID id,
+        Historico.Tipo tipo,
+        UUID entidadeId,
+        Instant dataAlteracao,
+        @JsonRawValue String dados
+) implements Serializable {
+}
@@ -0,0 +1,27 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The type Importacao dto.
+ */
+public record ImportacaoDTO(
+        Integer total,
+        Integer criadas,
+        Integer rejeitadas,
+        List<ImportacaoLinhaDTO> linhas
+) implements Serializable {
+
+    /**
+     * Summarize the result of every line.
+     *
+     * @param linhas the linhas
+     * @return the importacao dto
+     */
+    public static ImportacaoDTO of(List<ImportacaoLinhaDTO> linhas) {
+
+        var rejeitadas = (int) linhas.stream().filter(l -> l.erro() != null).count();
+        return new ImportacaoDTO(linhas.size(), linhas.size() - rejeitadas, rejeitadas, linhas);
+    }
+}
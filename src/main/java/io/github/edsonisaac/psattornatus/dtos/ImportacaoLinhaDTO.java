@@ -0,0 +1,36 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The type Importacao linha dto.
+ */
+public record ImportacaoLinhaDTO(
+        Integer linha,
+        UUID id,
+        String erro
+) implements Serializable {
+
+    /**
+     * Created line.
+     *
+     * @param linha the linha
+     * @param id    the id
+     * @return the importacao linha dto
+     */
+    public static ImportacaoLinhaDTO criada(Integer linha, UUID id) {
+        return new ImportacaoLinhaDTO(linha, id, null);
+    }
+
+    /**
+     * Rejected line.
+     *
+     * @param linha the linha
+     * @param erro  the erro
+     * @return the importacao linha dto
+     */
+    public static ImportacaoLinhaDTO rejeitada(Integer linha, String erro) {
+        return new ImportacaoLinhaDTO(linha, null, erro);
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The type Lote pessoas dto, the answer to a lookup of many pessoas by id.
+ *
+ * @param pessoas        the pessoas found, in the order of the ids
+ * @param naoEncontradas the ids of no pessoa
+ */
+public record LotePessoasDTO(
+        List<PessoaDTO> pessoas,
+        List<UUID> naoEncontradas
+) implements Serializable {
+
+    /**
+     * Split the ids into the pessoas found and the ids not found.
+     *
+     * @param ids     the ids
+     * @param pessoas the pessoas found
+     * @return the lote pessoas dto
+     */
+    public static LotePessoasDTO of(List<UUID> ids, List<PessoaDTO> pessoas) {
+
+        Set<UUID> encontradas = pessoas.stream().map(PessoaDTO::id).collect(Collectors.toSet());
+        return new LotePessoasDTO(pessoas, ids.stream().filter(id -> !encontradas.contains(id)).toList());
+    }
+}
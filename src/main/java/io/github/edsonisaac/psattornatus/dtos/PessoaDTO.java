@@ -1,23 +1,30 @@
 package io.github.edsonisaac.psattornatus.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.github.edsonisaac.psattornatus.entities.Pessoa;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
- * The type Pessoa dto.
+ * The type Pessoa dto. The versao and data atualizacao are sent as the ETag and Last-Modified headers, not in the body.
  */
 public record PessoaDTO(
         UUID id,
         @NotEmpty String nome,
         @NotNull LocalDate dataNascimento,
-        Set<EnderecoDTO> enderecos
+        Set<EnderecoDTO> enderecos,
+        @JsonIgnore long versao,
+        @JsonIgnore Instant dataAtualizacao
 ) implements Serializable {
 
     /**
@@ -32,7 +39,33 @@ public record PessoaDTO(
                 pessoa.getId(),
                 pessoa.getNome(),
                 pessoa.getDataNascimento(),
-                pessoa.getEnderecos() != null ? pessoa.getEnderecos().stream().map(e -> EnderecoDTO.toDTO(e)).collect(Collectors.toSet()) : null
+                pessoa.getEnderecos() != null ? pessoa.getEnderecos().stream().map(e -> EnderecoDTO.toDTO(e)).collect(Collectors.toSet()) : null,
+                pessoa.getVersao(),
+                pessoa.getDataAtualizacao()
         );
     }
+
+    /**
+     * To dtos list, grouping the rows of each pessoa in the order they were read.
+     *
+     * @param rows the rows of the pessoas joined with their enderecos
+     * @return the list
+     */
+    public static List<PessoaDTO> toDTOs(List<PessoaEnderecoDTO> rows) {
+
+        var pessoas = new LinkedHashMap<UUID, PessoaDTO>();
+
+        for (var row : rows) {
+
+            var pessoa = pessoas.computeIfAbsent(row.id(), id -> new PessoaDTO(id, row.nome(), row.dataNascimento(),
+                    new HashSet<>(), row.versao(), row.dataAtualizacao()));
+
+            if (row.enderecoId() != null) {
+                pessoa.enderecos().add(new EnderecoDTO(row.enderecoId(), row.logradouro(), row.numero(), row.cidade(),
+                        row.cep(), row.principal()));
+            }
+        }
+
+        return List.copyOf(pessoas.values());
+    }
 }
\ No newline at end of file
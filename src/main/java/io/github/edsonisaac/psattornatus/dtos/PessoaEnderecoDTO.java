@@ -0,0 +1,37 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The type Pessoa endereco dto, one row of a pessoa joined with one of its enderecos, as read to build a
+ * {@link PessoaDTO} without loading entities.
+ *
+ * @param id               the id
+ * @param nome             the nome
+ * @param dataNascimento   the data nascimento
+ * @param versao           the versao
+ * @param dataAtualizacao  the data atualizacao
+ * @param enderecoId       the endereco id, or null when the pessoa has no endereco
+ * @param logradouro       the logradouro
+ * @param numero           the numero
+ * @param cidade           the cidade
+ * @param cep              the cep
+ * @param principal        the principal
+ */
+public record PessoaEnderecoDTO(
+        UUID id,
+        String nome,
+        LocalDate dataNascimento,
+        long versao,
+        Instant dataAtualizacao,
+        UUID enderecoId,
+        String logradouro,
+        String numero,
+        String cidade,
+        String cep,
+        Boolean principal
+) implements Serializable {
+}
@@ -0,0 +1,22 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * The type Pessoa filtro dto, the criteria of GET /pessoas/search. Absent criteria match every pessoa.
+ *
+ * @param nome          the prefix of any word of the nome, or a misspelled nome
+ * @param cidade        the cidade of any endereco, ignoring case and accents
+ * @param cep           the prefix of the cep of any endereco
+ * @param nascimentoDe  the first data de nascimento, inclusive
+ * @param nascimentoAte the last data de nascimento, inclusive
+ */
+public record PessoaFiltroDTO(
+        String nome,
+        String cidade,
+        String cep,
+        LocalDate nascimentoDe,
+        LocalDate nascimentoAte
+) implements Serializable {
+}
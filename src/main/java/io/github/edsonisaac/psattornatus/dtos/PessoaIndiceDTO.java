@@ -0,0 +1,23 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The type Pessoa indice dto, one row of a pessoa joined with one of its enderecos, as read to build the search index.
+ *
+ * @param id              the id
+ * @param nomeNormalizado the normalized nome
+ * @param dataNascimento  the data nascimento
+ * @param cidade          the cidade, or null when the pessoa has no endereco
+ * @param cep             the cep, or null when the pessoa has no endereco
+ */
+public record PessoaIndiceDTO(
+        UUID id,
+        String nomeNormalizado,
+        LocalDate dataNascimento,
+        String cidade,
+        String cep
+) implements Serializable {
+}
@@ -0,0 +1,16 @@
+package io.github.edsonisaac.psattornatus.dtos;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The type Versao dto, the validators of a row as read without loading the entity.
+ *
+ * @param versao          the versao
+ * @param dataAtualizacao the data atualizacao
+ */
+public record VersaoDTO(
+        long versao,
+        Instant dataAtualizacao
+) implements Serializable {
+}
@@ -1,30 +1,57 @@
 package io.github.edsonisaac.psattornatus.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.UUID;
 
 /**
- * The type Abstract entity.
+ * The type Abstract entity. Entities are equal when they have the same id; an entity without an id yet is only equal
+ * to itself, so new entities can be collected in sets before they are saved.
  */
 @Data
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
 @MappedSuperclass
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public abstract class AbstractEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
-    @EqualsAndHashCode.Include
     private UUID id;
+
+    @JsonIgnore
+    @Version
+    private long versao;
+
+    @JsonIgnore
+    @UpdateTimestamp
+    @Column(name = "data_atualizacao")
+    private Instant dataAtualizacao;
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        return o instanceof AbstractEntity other && getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getId() != null ? getId().hashCode() : System.identityHashCode(this);
+    }
 }
\ No newline at end of file
@@ -7,8 +7,10 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 
@@ -17,25 +19,30 @@ import java.io.Serializable;
  */
 @Data
 @SuperBuilder
-@EqualsAndHashCode(callSuper = true)
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
 @Entity(name = "tb_enderecos")
 public class Endereco extends AbstractEntity {
 
     @NotEmpty
+    @Size(max = 100)
     @Column(length = 100)
     private String logradouro;
 
     @NotEmpty
+    @Size(max = 10)
     @Column(length = 10)
     private String numero;
 
     @NotEmpty
+    @Size(max = 100)
     @Column(length = 100)
     private String cidade;
 
     @NotEmpty
+    @Size(max = 10)
     @Column(length = 10)
     private String cep;
 
@@ -46,5 +53,6 @@ public class Endereco extends AbstractEntity {
     @ManyToOne
     @JoinColumn(name = "pessoa_id")
     @JsonBackReference
+    @ToString.Exclude
     private Pessoa pessoa;
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package io.github.edsonisaac.psattornatus.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The type Historico, one change of a pessoa or of one of its enderecos. Rows are only ever inserted.
+ */
+@Data
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity(name = "tb_historico")
+public class Historico {
+
+    /**
+     * What was changed.
+     */
+    public enum Tipo {
+
+        /**
+         * The pessoa itself.
+         */
+        PESSOA,
+
+        /**
+         * One of its enderecos.
+         */
+        ENDERECO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "pessoa_id", nullable = false)
+    private UUID pessoaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Tipo tipo;
+
+    @Column(name = "entidade_id", nullable = false)
+    private UUID entidadeId;
+
+    @Column(name = "data_alteracao", nullable = false)
+    private Instant dataAlteracao;
+
+    @ToString.Exclude
+    @Column(length = 1000000, nullable = false)
+    private String dados;
+}
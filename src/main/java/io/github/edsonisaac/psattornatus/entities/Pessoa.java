@@ -1,14 +1,20 @@
 package io.github.edsonisaac.psattornatus.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import io.github.edsonisaac.psattornatus.utils.NomeUtils;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -19,16 +25,22 @@ import java.util.Set;
  */
 @Data
 @SuperBuilder
-@EqualsAndHashCode(callSuper = true)
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
 @Entity(name = "tb_pessoas")
 public class Pessoa extends AbstractEntity implements Serializable {
 
     @NotEmpty
+    @Size(max = 100)
     @Column(length = 100)
     private String nome;
 
+    @JsonIgnore
+    @Column(name = "nome_normalizado", length = 100)
+    private String nomeNormalizado;
+
     @NotNull
     @Column(name = "data_nascimento")
     private LocalDate dataNascimento;
@@ -37,4 +49,13 @@ public class Pessoa extends AbstractEntity implements Serializable {
     @OneToMany(mappedBy = "pessoa")
     @JsonManagedReference
     private Set<Endereco> enderecos;
+
+    /**
+     * Keep the normalized nome in sync with the nome.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void normalizeNome() {
+        this.nomeNormalizado = NomeUtils.normalize(nome);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package io.github.edsonisaac.psattornatus.events;
+
+import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when enderecos of a pessoa are written, with the state that was saved. Listeners that keep derived state
+ * should re-read the pessoa after commit.
+ *
+ * @param pessoaId  the id of the pessoa whose enderecos were written
+ * @param enderecos the saved enderecos
+ */
+public record EnderecosAlteradosEvent(UUID pessoaId, List<EnderecoDTO> enderecos) {
+}
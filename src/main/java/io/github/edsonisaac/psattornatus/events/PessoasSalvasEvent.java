@@ -0,0 +1,14 @@
+package io.github.edsonisaac.psattornatus.events;
+
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+
+import java.util.List;
+
+/**
+ * Published when pessoas are written, with the state that was saved. Listeners that keep derived state should apply
+ * it after commit.
+ *
+ * @param pessoas the saved pessoas; the enderecos are null when they were not written with the pessoa
+ */
+public record PessoasSalvasEvent(List<PessoaDTO> pessoas) {
+}
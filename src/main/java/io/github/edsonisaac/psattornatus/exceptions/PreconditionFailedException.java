@@ -0,0 +1,16 @@
+package io.github.edsonisaac.psattornatus.exceptions;
+
+/**
+ * The type Precondition failed exception.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Instantiates a new Precondition failed exception.
+     *
+     * @param message the message
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.edsonisaac.psattornatus.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.edsonisaac.psattornatus.exceptions.StandardError;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of requests in flight with a fair semaphore.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final int maxRequests;
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final ObjectMapper mapper;
+
+    /**
+     * Instantiates a new Concurrency limit filter.
+     *
+     * @param maxRequests    the max requests
+     * @param acquireTimeout the acquire timeout
+     * @param mapper         the mapper
+     */
+    public ConcurrencyLimitFilter(int maxRequests, Duration acquireTimeout, ObjectMapper mapper) {
+        this.maxRequests = maxRequests;
+        this.permits = new Semaphore(maxRequests, true);
+        this.acquireTimeout = acquireTimeout;
+        this.mapper = mapper;
+    }
+
+    /**
+     * The maximum number of requests handled at the same time.
+     *
+     * @return the max requests
+     */
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+
+        boolean acquired;
+
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            reject(request, response);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        var error = new StandardError(
+                System.currentTimeMillis(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                MessageUtils.SERVICE_UNAVAILABLE,
+                request.getRequestURI());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        mapper.writeValue(response.getOutputStream(), error);
+    }
+}
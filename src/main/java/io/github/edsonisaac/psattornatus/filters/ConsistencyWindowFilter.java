@@ -0,0 +1,29 @@
+package io.github.edsonisaac.psattornatus.filters;
+
+import io.github.edsonisaac.psattornatus.utils.ReplicaRoutingDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes the write mark of {@link ReplicaRoutingDataSource} to the request, so a request only reads from the primary
+ * after its own writes and not after those of a previous request served by the same thread.
+ */
+public class ConsistencyWindowFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+
+        ReplicaRoutingDataSource.clear();
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clear();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.edsonisaac.psattornatus.filters;
+
+import io.github.edsonisaac.psattornatus.utils.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, tagged like {@code http.server.requests}.
+ * <p>
+ * Only statements run on the request thread are counted, so the body of a streamed response is not.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    /**
+     * The constant METRIC.
+     */
+    public static final String METRIC = "http.server.requests.sql";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Instantiates a new Sql statement metrics filter.
+     *
+     * @param registry the registry
+     */
+    public SqlStatementMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+
+        SqlStatementCounter.start();
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            var statements = SqlStatementCounter.stop();
+            var uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+            DistributionSummary.builder(METRIC)
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                    .tag("status", String.valueOf(response.getStatus()))
+                    .register(registry)
+                    .record(statements);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+}
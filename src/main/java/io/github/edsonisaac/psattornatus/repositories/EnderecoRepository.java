@@ -1,11 +1,17 @@
 package io.github.edsonisaac.psattornatus.repositories;
 
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
 import io.github.edsonisaac.psattornatus.entities.Endereco;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -15,13 +21,28 @@ import java.util.UUID;
 public interface EnderecoRepository extends JpaRepository<Endereco, UUID> {
 
     /**
-     * Exists by pessoa boolean.
+     * Clear the principal flag of the current principal endereco of the pessoa, incrementing its versao.
      *
      * @param pessoaId the pessoa id
-     * @return the boolean
+     * @return the number of updated rows
      */
-    @Query("SELECT CASE WHEN count(e)> 0 THEN TRUE ELSE FALSE END FROM tb_enderecos AS e WHERE e.pessoa.id = ?1")
-    boolean existsByPessoa(UUID pessoaId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE tb_enderecos AS e SET e.principal = false, e.versao = e.versao + 1 WHERE e.pessoa.id = ?1 AND e.principal = true")
+    int clearPrincipal(UUID pessoaId);
+
+    /**
+     * Clear the principal flag of the principal endereco of the pessoa other than the given one, incrementing its
+     * versao. Changes of the persistence context are not flushed first, so the given endereco can be made principal
+     * at commit without ever having two principal enderecos.
+     *
+     * @param pessoaId   the pessoa id
+     * @param enderecoId the endereco id
+     * @return the number of updated rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("UPDATE tb_enderecos AS e SET e.principal = false, e.versao = e.versao + 1 WHERE e.pessoa.id = ?1 AND e.principal = true AND e.id <> ?2")
+    int clearOtherPrincipal(UUID pessoaId, UUID enderecoId);
 
     /**
      * Find by pessoa list.
@@ -31,4 +52,13 @@ public interface EnderecoRepository extends JpaRepository<Endereco, UUID> {
      */
     @Query("FROM tb_enderecos AS e WHERE e.pessoa.id = ?1")
     List<Endereco> findByPessoa(UUID pessoaId);
+
+    /**
+     * Find the versao and data atualizacao of the endereco, without loading it.
+     *
+     * @param id the id
+     * @return the optional
+     */
+    @Query("SELECT new io.github.edsonisaac.psattornatus.dtos.VersaoDTO(e.versao, e.dataAtualizacao) FROM tb_enderecos AS e WHERE e.id = ?1")
+    Optional<VersaoDTO> findVersaoById(UUID id);
 }
\ No newline at end of file
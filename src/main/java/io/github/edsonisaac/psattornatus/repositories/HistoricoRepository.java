@@ -0,0 +1,29 @@
+package io.github.edsonisaac.psattornatus.repositories;
+
+import io.github.edsonisaac.psattornatus.dtos.HistoricoDTO;
+import io.github.edsonisaac.psattornatus.entities.Historico;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The interface Historico repository.
+ */
+@Repository
+public interface HistoricoRepository extends JpaRepository<Historico, UUID> {
+
+    /**
+     * Find the latest changes of the pessoa and of its enderecos, newest first, selected straight into dtos.
+     *
+     * @param pessoaId the pessoa id
+     * @param pageable the pageable
+     * @return the list
+     */
+    @Query("SELECT new io.github.edsonisaac.psattornatus.dtos.HistoricoDTO(h.id, h.tipo, h.entidadeId, h.dataAlteracao, h.dados) " +
+            "FROM tb_historico AS h WHERE h.pessoaId = ?1 ORDER BY h.dataAlteracao DESC")
+    List<HistoricoDTO> findDTOsByPessoa(UUID pessoaId, Pageable pageable);
+}
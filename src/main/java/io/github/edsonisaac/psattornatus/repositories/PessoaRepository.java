@@ -1,11 +1,25 @@
 package io.github.edsonisaac.psattornatus.repositories;
 
+import io.github.edsonisaac.psattornatus.dtos.PessoaEnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaIndiceDTO;
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
 import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * The interface Pessoa repository.
@@ -14,10 +28,125 @@ import java.util.UUID;
 public interface PessoaRepository extends JpaRepository<Pessoa, UUID> {
 
     /**
-     * Find by nome ignore case optional.
+     * Find the ids of the first page ordered by id.
      *
-     * @param nome the nome
+     * @param pageable the pageable
+     * @return the list
+     */
+    @Query("SELECT p.id FROM tb_pessoas AS p ORDER BY p.id")
+    List<UUID> findPageIds(Pageable pageable);
+
+    /**
+     * Find the ids of the page that follows the given id (keyset pagination).
+     *
+     * @param id       the last id of the previous page
+     * @param pageable the pageable
+     * @return the list
+     */
+    @Query("SELECT p.id FROM tb_pessoas AS p WHERE p.id > ?1 ORDER BY p.id")
+    List<UUID> findPageIdsAfter(UUID id, Pageable pageable);
+
+    /**
+     * Find by ids with the enderecos fetched in the same statement, as managed entities.
+     *
+     * @param ids the ids
+     * @return the list
+     */
+    @EntityGraph(attributePaths = "enderecos")
+    @Query("FROM tb_pessoas AS p WHERE p.id IN ?1 ORDER BY p.id")
+    List<Pessoa> findAllWithEnderecosByIdIn(Collection<UUID> ids);
+
+    /**
+     * Find the pessoas by ids joined with their enderecos, one row per endereco, selected straight into dtos so no
+     * entity is loaded or tracked.
+     *
+     * @param ids the ids
+     * @return the list
+     */
+    @Query("SELECT new io.github.edsonisaac.psattornatus.dtos.PessoaEnderecoDTO(p.id, p.nome, p.dataNascimento, p.versao, " +
+            "p.dataAtualizacao, e.id, e.logradouro, e.numero, e.cidade, e.cep, e.principal) " +
+            "FROM tb_pessoas AS p LEFT JOIN p.enderecos AS e WHERE p.id IN ?1 ORDER BY p.id")
+    List<PessoaEnderecoDTO> findDTOsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Find the versao and data atualizacao of the pessoa, without loading it.
+     *
+     * @param id the id
+     * @return the optional
+     */
+    @Query("SELECT new io.github.edsonisaac.psattornatus.dtos.VersaoDTO(p.versao, p.dataAtualizacao) FROM tb_pessoas AS p WHERE p.id = ?1")
+    Optional<VersaoDTO> findVersaoById(UUID id);
+
+    /**
+     * Increment the versao of the pessoa, whose representation includes its enderecos. The updated row stays locked
+     * until the transaction ends.
+     *
+     * @param id              the id
+     * @param dataAtualizacao the data atualizacao
+     * @return the number of updated rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE tb_pessoas AS p SET p.versao = p.versao + 1, p.dataAtualizacao = ?2 WHERE p.id = ?1")
+    int incrementVersao(UUID id, Instant dataAtualizacao);
+
+    /**
+     * Increment the versao of the pessoa only when it is one of the given versoes, as sent in If-Match.
+     *
+     * @param id              the id
+     * @param versoes         the expected versoes
+     * @param dataAtualizacao the data atualizacao
+     * @return the number of updated rows, zero when the pessoa is missing or changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE tb_pessoas AS p SET p.versao = p.versao + 1, p.dataAtualizacao = ?3 WHERE p.id = ?1 AND p.versao IN ?2")
+    int incrementVersaoIfMatch(UUID id, Collection<Long> versoes, Instant dataAtualizacao);
+
+    /**
+     * Find which of the given normalized nomes are already registered.
+     *
+     * @param nomes the normalized nomes
+     * @return the list
+     */
+    @Query("SELECT p.nomeNormalizado FROM tb_pessoas AS p WHERE p.nomeNormalizado IN ?1")
+    List<String> findNomesNormalizadosIn(Collection<String> nomes);
+
+    /**
+     * Stream every normalized nome, in index order. Must be consumed inside a transaction.
+     *
+     * @return the stream
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.nomeNormalizado FROM tb_pessoas AS p WHERE p.nomeNormalizado IS NOT NULL ORDER BY p.nomeNormalizado")
+    Stream<String> streamNomesNormalizados();
+
+    /**
+     * Stream the searchable fields of every pessoa, one row per endereco, ordered by pessoa. Must be consumed inside a
+     * transaction.
+     *
+     * @return the stream
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new io.github.edsonisaac.psattornatus.dtos.PessoaIndiceDTO(p.id, p.nomeNormalizado, p.dataNascimento, e.cidade, e.cep) " +
+            "FROM tb_pessoas AS p LEFT JOIN p.enderecos AS e ORDER BY p.id")
+    Stream<PessoaIndiceDTO> streamIndice();
+
+    /**
+     * Find the searchable fields of the given pessoas, one row per endereco, ordered by pessoa.
+     *
+     * @param ids the ids
+     * @return the list
+     */
+    @Query("SELECT new io.github.edsonisaac.psattornatus.dtos.PessoaIndiceDTO(p.id, p.nomeNormalizado, p.dataNascimento, e.cidade, e.cep) " +
+            "FROM tb_pessoas AS p LEFT JOIN p.enderecos AS e WHERE p.id IN ?1 ORDER BY p.id")
+    List<PessoaIndiceDTO> findIndiceByIdIn(Collection<UUID> ids);
+
+    /**
+     * Find by normalized nome optional, served by the unique index on the normalized nome. Pending changes are not
+     * flushed first, so a pessoa whose nome is being changed can be checked before it is written.
+     *
+     * @param nomeNormalizado the normalized nome
      * @return the optional
      */
-    Optional<Pessoa> findByNomeIgnoreCase(String nome);
-}
\ No newline at end of file
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    Optional<Pessoa> findByNomeNormalizado(String nomeNormalizado);
+}
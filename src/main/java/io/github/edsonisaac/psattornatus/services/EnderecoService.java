@@ -1,53 +1,212 @@
 package io.github.edsonisaac.psattornatus.services;
 
+import io.github.edsonisaac.psattornatus.configs.CacheConfig;
+import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.EnderecosDTO;
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
 import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.events.EnderecosAlteradosEvent;
 import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.exceptions.PreconditionFailedException;
 import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
 import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
 import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.github.edsonisaac.psattornatus.utils.RetryUtils;
+import io.github.edsonisaac.psattornatus.utils.SingleFlight;
+import io.github.edsonisaac.psattornatus.utils.TransactionUtils;
+import io.github.edsonisaac.psattornatus.utils.ValidationUtils;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * The type Endereco service.
  */
 @Service
+@Timed(value = PessoaService.METRIC, histogram = true)
 @RequiredArgsConstructor(onConstructor_= {@Autowired})
 public class EnderecoService {
 
+    private final ApplicationEventPublisher eventPublisher;
     private final EnderecoRepository repository;
+    private final PessoaRepository pessoaRepository;
+    private final SingleFlight<UUID, EnderecosDTO> enderecoLoads;
+    private final SingleFlight<UUID, VersaoDTO> versaoLoads;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
 
     /**
-     * Find by pessoa list.
+     * Find the enderecos of the pessoa with its versao, in a single query telling a missing pessoa from a pessoa
+     * without enderecos. Concurrent calls for the same pessoa share one query, run in a read-only transaction of its
+     * own, so the callers waiting for it hold no connection.
      *
      * @param pessoaId the pessoa id
-     * @return the list
+     * @return the enderecos dto, without enderecos when the pessoa has none
      */
-    public List<Endereco> findByPessoa(UUID pessoaId) {
+    public EnderecosDTO findByPessoa(UUID pessoaId) {
 
-        if (!repository.existsByPessoa(pessoaId)) {
-            throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
-        }
+        return enderecoLoads.load(pessoaId, () -> {
+
+            var rows = TransactionUtils.readOnly(transactionTemplate, () -> pessoaRepository.findDTOsByIdIn(List.of(pessoaId)));
+
+            if (rows.isEmpty()) {
+                throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
+            }
 
-        return repository.findByPessoa(pessoaId);
+            return EnderecosDTO.toDTO(rows);
+        });
     }
 
     /**
-     * Save endereco.
+     * Save endereco, overwriting the current one.
      *
      * @param endereco the endereco
      * @return the endereco
      */
+    @CacheEvict(cacheNames = CacheConfig.PESSOAS, key = "#endereco.pessoa.id", condition = "#endereco != null && #endereco.pessoa != null")
     public Endereco save(Endereco endereco) {
+        return save(endereco, null);
+    }
+
+    /**
+     * Save endereco, only when the current versao of its pessoa is one of the given versoes: the enderecos are part of
+     * the pessoa, whose ETag is the one the client holds. A write losing to concurrent writes of the same pessoa is
+     * retried in a new transaction.
+     *
+     * @param endereco the endereco
+     * @param versoes  the expected versoes of the pessoa, or null to overwrite any versao
+     * @return the endereco
+     */
+    @CacheEvict(cacheNames = CacheConfig.PESSOAS, key = "#endereco.pessoa.id", condition = "#endereco != null && #endereco.pessoa != null")
+    public Endereco save(Endereco endereco, Collection<Long> versoes) {
 
         if (endereco == null) {
             throw new ValidationException(MessageUtils.ENDERECO_NULL);
         }
 
+        var salvo = RetryUtils.onConflict(PessoaService.WRITE_ATTEMPTS, () -> transactionTemplate.execute(s -> write(endereco, versoes)));
+
+        if (salvo.getPessoa() != null) {
+            forget(salvo.getPessoa().getId());
+            eventPublisher.publishEvent(new EnderecosAlteradosEvent(salvo.getPessoa().getId(), List.of(EnderecoDTO.toDTO(salvo))));
+        }
+
+        return salvo;
+    }
+
+    /**
+     * Change some fields of the endereco, only when the current versao of its pessoa is one of the given versoes. The
+     * endereco is loaded once, changed in place and only the changed columns are written. A change losing to
+     * concurrent writes of the same pessoa is applied again to the current endereco.
+     *
+     * @param pessoaId   the pessoa id
+     * @param enderecoId the endereco id
+     * @param patch      the change
+     * @param versoes    the expected versoes of the pessoa, or null to change any versao
+     * @return the endereco
+     */
+    @CacheEvict(cacheNames = CacheConfig.PESSOAS, key = "#pessoaId")
+    public Endereco patch(UUID pessoaId, UUID enderecoId, Consumer<Endereco> patch, Collection<Long> versoes) {
+
+        var salvo = RetryUtils.onConflict(PessoaService.WRITE_ATTEMPTS, () -> transactionTemplate.execute(s -> {
+
+            incrementVersao(pessoaId, versoes);
+
+            var endereco = repository.findById(enderecoId)
+                    .filter(e -> e.getPessoa() != null && pessoaId.equals(e.getPessoa().getId()))
+                    .orElseThrow(() -> new ObjectNotFoundException(MessageUtils.ENDERECO_NOT_FOUND));
+
+            var principal = Boolean.TRUE.equals(endereco.getPrincipal());
+
+            patch.accept(endereco);
+
+            var erro = ValidationUtils.firstViolation(validator, endereco);
+
+            if (erro != null) {
+                throw new ValidationException(erro);
+            }
+
+            if (!principal && Boolean.TRUE.equals(endereco.getPrincipal())) {
+                repository.clearOtherPrincipal(pessoaId, enderecoId);
+            }
+
+            return endereco;
+        }));
+
+        forget(pessoaId);
+        eventPublisher.publishEvent(new EnderecosAlteradosEvent(pessoaId, List.of(EnderecoDTO.toDTO(salvo))));
+
+        return salvo;
+    }
+
+    /**
+     * Write the endereco. The versao of the pessoa is incremented first; when it is the principal one, the previous
+     * principal endereco of the pessoa is cleared. An endereco sent without its versao overwrites the current one.
+     *
+     * @param endereco the endereco
+     * @param versoes  the expected versoes of the pessoa, or null to overwrite any versao
+     * @return the endereco
+     */
+    private Endereco write(Endereco endereco, Collection<Long> versoes) {
+
+        var pessoaId = endereco.getPessoa() != null ? endereco.getPessoa().getId() : null;
+
+        if (pessoaId != null) {
+            incrementVersao(pessoaId, versoes);
+        }
+
+        if (pessoaId != null && Boolean.TRUE.equals(endereco.getPrincipal())) {
+            repository.clearPrincipal(pessoaId);
+        }
+
+        if (endereco.getId() != null) {
+            endereco.setVersao(repository.findVersaoById(endereco.getId()).map(VersaoDTO::versao).orElse(endereco.getVersao()));
+        }
+
         return repository.save(endereco);
     }
+
+    /**
+     * Stop sharing the loads of the pessoa in flight, which may have read it before the write.
+     *
+     * @param pessoaId the pessoa id
+     */
+    private void forget(UUID pessoaId) {
+        enderecoLoads.forget(pessoaId);
+        versaoLoads.forget(pessoaId);
+    }
+
+    /**
+     * Increment the versao of the pessoa, as its enderecos are part of it. This also locks its row until the
+     * transaction ends, so switches of the principal endereco of a pessoa happen one at a time.
+     *
+     * @param pessoaId the pessoa id
+     * @param versoes  the expected versoes of the pessoa, or null to increment any versao
+     */
+    private void incrementVersao(UUID pessoaId, Collection<Long> versoes) {
+
+        var agora = Instant.now();
+        var atualizadas = versoes == null ? pessoaRepository.incrementVersao(pessoaId, agora)
+                : versoes.isEmpty() ? 0 : pessoaRepository.incrementVersaoIfMatch(pessoaId, versoes, agora);
+
+        if (atualizadas == 0 && versoes != null && pessoaRepository.existsById(pessoaId)) {
+            throw new PreconditionFailedException(MessageUtils.VERSION_MISMATCH);
+        }
+
+        if (atualizadas == 0) {
+            throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,294 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.edsonisaac.psattornatus.configs.HistoricoProperties;
+import io.github.edsonisaac.psattornatus.dtos.HistoricoDTO;
+import io.github.edsonisaac.psattornatus.entities.Historico;
+import io.github.edsonisaac.psattornatus.events.EnderecosAlteradosEvent;
+import io.github.edsonisaac.psattornatus.events.PessoasSalvasEvent;
+import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
+import io.github.edsonisaac.psattornatus.repositories.HistoricoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the historico of every pessoa: the state saved by each write of the pessoa or of one of its enderecos.
+ * <p>
+ * Changes are queued once their transaction commits and a single background thread writes whatever is queued in one
+ * batch per transaction, so the historico lags slightly behind the writes. When the queue is full a change waits up to
+ * {@code app.historico.offer-timeout} for room and is dropped after that, rather than slowing the writes down further.
+ * The writer stops after the web server, so changes still queued by the last requests are written before the
+ * application stops; changes arriving after that are dropped.
+ */
+@Slf4j
+@Service
+public class HistoricoService implements SmartLifecycle {
+
+    /**
+     * The constant QUEUE_METRIC, the number of changes waiting to be written.
+     */
+    public static final String QUEUE_METRIC = "app.historico.queue";
+
+    /**
+     * The constant DROPPED_METRIC, the number of changes dropped because the queue was full, the write failed or the
+     * writer had stopped.
+     */
+    public static final String DROPPED_METRIC = "app.historico.dropped";
+
+    /**
+     * The constant WRITTEN_METRIC, the number of changes written.
+     */
+    public static final String WRITTEN_METRIC = "app.historico.written";
+
+    /**
+     * The constant BATCH_METRIC, the time taken by each batch.
+     */
+    public static final String BATCH_METRIC = "app.historico.batch";
+
+    private static final long POLL_MILLIS = 100;
+
+    private final HistoricoRepository repository;
+    private final PessoaRepository pessoaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+    private final HistoricoProperties properties;
+    private final BlockingQueue<Alteracao> queue;
+    private final Counter dropped;
+    private final Counter written;
+    private final Timer batch;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread thread;
+
+    /**
+     * Instantiates a new Historico service.
+     *
+     * @param repository          the repository
+     * @param pessoaRepository    the pessoa repository
+     * @param transactionTemplate the transaction template
+     * @param mapper              the mapper
+     * @param properties          the properties
+     * @param registry            the registry
+     */
+    @Autowired
+    public HistoricoService(HistoricoRepository repository, PessoaRepository pessoaRepository, TransactionTemplate transactionTemplate,
+                            ObjectMapper mapper, HistoricoProperties properties, MeterRegistry registry) {
+        this.repository = repository;
+        this.pessoaRepository = pessoaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.dropped = registry.counter(DROPPED_METRIC);
+        this.written = registry.counter(WRITTEN_METRIC);
+        this.batch = registry.timer(BATCH_METRIC);
+
+        Gauge.builder(QUEUE_METRIC, queue, BlockingQueue::size).register(registry);
+    }
+
+    /**
+     * Find the latest changes of the pessoa and of its enderecos, newest first.
+     *
+     * @param pessoaId the pessoa id
+     * @param size     the maximum number of changes
+     * @return the list
+     */
+    @Transactional(readOnly = true)
+    public List<HistoricoDTO> findByPessoa(UUID pessoaId, int size) {
+
+        if (size < 1 || size > PessoaService.MAX_PAGE_SIZE) {
+            throw new ValidationException(MessageUtils.PAGE_SIZE_INVALID);
+        }
+
+        var historico = repository.findDTOsByPessoa(pessoaId, PageRequest.ofSize(size));
+
+        if (historico.isEmpty() && !pessoaRepository.existsById(pessoaId)) {
+            throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
+        }
+
+        return historico;
+    }
+
+    /**
+     * Queue the saved pessoas, once their transaction has committed.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoasSalvas(PessoasSalvasEvent event) {
+
+        var agora = Instant.now();
+
+        event.pessoas().forEach(p -> offer(new Alteracao(p.id(), Historico.Tipo.PESSOA, p.id(), agora, p)));
+    }
+
+    /**
+     * Queue the saved enderecos, once their transaction has committed.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnderecosAlterados(EnderecosAlteradosEvent event) {
+
+        var agora = Instant.now();
+
+        event.enderecos().forEach(e -> offer(new Alteracao(event.pessoaId(), Historico.Tipo.ENDERECO, e.id(), agora, e)));
+    }
+
+    @Override
+    public synchronized void start() {
+
+        stopped = false;
+        running = true;
+        thread = Thread.ofPlatform().name("historico-writer").daemon().start(this::run);
+    }
+
+    @Override
+    public synchronized void stop() {
+
+        stopped = true;
+        running = false;
+
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        // changes offered just as the writer exited
+        var restantes = new ArrayList<Alteracao>();
+
+        queue.drainTo(restantes);
+        dropped.increment(restantes.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server, once the requests in flight have finished and queued their changes.
+     *
+     * @return the phase
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    /**
+     * Queue the change, waiting for room up to the offer timeout.
+     *
+     * @param alteracao the alteracao
+     */
+    void offer(Alteracao alteracao) {
+
+        if (stopped) {
+            dropped.increment();
+            return;
+        }
+
+        try {
+            if (queue.offer(alteracao, properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        dropped.increment();
+    }
+
+    /**
+     * Write batches until stopped and the queue is empty.
+     */
+    private void run() {
+
+        var lote = new ArrayList<Alteracao>(properties.batchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                var primeira = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+
+                if (primeira == null) {
+                    continue;
+                }
+
+                lote.add(primeira);
+                queue.drainTo(lote, properties.batchSize() - 1);
+
+                batch.record(() -> write(lote));
+                written.increment(lote.size());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Falha ao gravar {} alterações no histórico", lote.size(), ex);
+                dropped.increment(lote.size());
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void write(List<Alteracao> lote) {
+
+        var historicos = lote.stream().map(a -> Historico.builder()
+                .pessoaId(a.pessoaId())
+                .tipo(a.tipo())
+                .entidadeId(a.entidadeId())
+                .dataAlteracao(a.dataAlteracao())
+                .dados(json(a.dados()))
+                .build()).toList();
+
+        transactionTemplate.executeWithoutResult(s -> repository.saveAll(historicos));
+    }
+
+    private String json(Object dados) {
+
+        try {
+            return writer.writeValueAsString(dados);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * A change waiting to be written; the dados are serialized by the writer, off the request thread.
+     *
+     * @param pessoaId      the pessoa id
+     * @param tipo          the tipo
+     * @param entidadeId    the entidade id
+     * @param dataAlteracao the data alteracao
+     * @param dados         the saved state
+     */
+    record Alteracao(UUID pessoaId, Historico.Tipo tipo, UUID entidadeId, Instant dataAlteracao, Object dados) {
+    }
+}
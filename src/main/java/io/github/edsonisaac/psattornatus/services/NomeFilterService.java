@@ -0,0 +1,80 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.github.edsonisaac.psattornatus.utils.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tells which normalized nomes are definitely not registered, so saving a new nome does not need a lookup.
+ * <p>
+ * The filter is loaded from the database once the application is ready and every nome saved through the services is
+ * added to it. Until it is loaded every nome might exist. Nomes written by other means are only seen after the next
+ * {@link #warmUp()}; the unique index on nome_normalizado still rejects them.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor_= {@Autowired})
+public class NomeFilterService {
+
+    /**
+     * The constant MIN_EXPECTED_NOMES.
+     */
+    public static final long MIN_EXPECTED_NOMES = 1_000_000;
+
+    /**
+     * The constant FALSE_POSITIVE_PROBABILITY.
+     */
+    public static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final PessoaRepository repository;
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+
+    /**
+     * Rebuild the filter from every registered nome, sized for twice as many nomes.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+
+        var filter = new BloomFilter(Math.max(MIN_EXPECTED_NOMES, 2 * repository.count()), FALSE_POSITIVE_PROBABILITY);
+
+        this.ready = false;
+        this.filter = filter;
+
+        try (var nomes = repository.streamNomesNormalizados()) {
+            nomes.forEach(filter::put);
+        }
+
+        this.ready = true;
+    }
+
+    /**
+     * Whether the normalized nome might be registered.
+     *
+     * @param nomeNormalizado the normalized nome
+     * @return false when the nome is definitely not registered
+     */
+    public boolean mightExist(String nomeNormalizado) {
+        return !ready || filter.mightContain(nomeNormalizado);
+    }
+
+    /**
+     * Add a saved normalized nome.
+     *
+     * @param nomeNormalizado the normalized nome
+     */
+    public void add(String nomeNormalizado) {
+
+        var filter = this.filter;
+
+        if (filter != null && nomeNormalizado != null) {
+            filter.put(nomeNormalizado);
+        }
+    }
+}
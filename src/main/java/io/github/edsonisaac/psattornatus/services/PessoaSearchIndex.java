@@ -0,0 +1,483 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import io.github.edsonisaac.psattornatus.dtos.PessoaFiltroDTO;
+import io.github.edsonisaac.psattornatus.utils.NomeUtils;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index of pessoas, behind GET /pessoas/search.
+ * <p>
+ * Every indexed pessoa gets an ordinal. Nomes are indexed by trigram (as in pg_trgm, every word padded with two
+ * spaces before and one after), cidades by their normalized value and ceps in a sorted map for prefix lookups. A
+ * pessoa indexed again gets a new ordinal and the old one is marked dead, so postings are only ever appended and stay
+ * sorted; dead ordinals are dropped once they are a quarter of the index. Searches share a read lock, writes are
+ * serialized.
+ */
+public class PessoaSearchIndex {
+
+    /**
+     * The constant MIN_SIMILARITY, the trigram similarity a nome needs to match when it is not a prefix match.
+     */
+    public static final float MIN_SIMILARITY = 0.3f;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int DOCUMENT_SCAN_COST = 32;
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(Hit::nome, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(Hit::ordinal);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<String, IntList> trigrams = new HashMap<>();
+    private final Map<String, IntList> cidades = new HashMap<>();
+    private final NavigableMap<String, IntList> ceps = new TreeMap<>();
+    private final BitSet alive = new BitSet();
+
+    private Documento[] documentos = new Documento[INITIAL_CAPACITY];
+    private short[] trigramCounts = new short[INITIAL_CAPACITY];
+    private int[] nascimentos = new int[INITIAL_CAPACITY];
+    private int size;
+    private int minTrigramCount = Short.MAX_VALUE;
+
+    /**
+     * Index the pessoa, replacing the previous version. A documento without cidades and ceps keeps the ones already
+     * indexed for the pessoa.
+     *
+     * @param documento the documento
+     */
+    public void put(Documento documento) {
+        putAll(List.of(documento));
+    }
+
+    /**
+     * Index the pessoas, replacing their previous versions.
+     *
+     * @param documentos the documentos
+     */
+    public void putAll(Collection<Documento> documentos) {
+
+        lock.writeLock().lock();
+
+        try {
+            documentos.forEach(this::index);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the pessoa.
+     *
+     * @param id the id
+     */
+    public void remove(UUID id) {
+
+        lock.writeLock().lock();
+
+        try {
+            var ordinal = ordinals.remove(id);
+
+            if (ordinal != null) {
+                kill(ordinal);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The number of indexed pessoas.
+     *
+     * @return the size
+     */
+    public int size() {
+
+        lock.readLock().lock();
+
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search the pessoas matching every given criteria. Prefix matches of the nome come first, then the closest
+     * misspellings; ties and searches without nome are ordered by nome.
+     *
+     * @param filtro the filtro
+     * @param offset the number of matches to skip
+     * @param limit  the maximum number of ids returned
+     * @return the resultado
+     */
+    public Resultado search(PessoaFiltroDTO filtro, int offset, int limit) {
+
+        lock.readLock().lock();
+
+        try {
+            var nome = NomeUtils.normalize(filtro.nome());
+            var tokens = StringUtils.hasText(nome) ? nome.split("\\s+") : null;
+            BitSet cidadeFiltro = null;
+            BitSet cepFiltro = null;
+
+            if (StringUtils.hasText(filtro.cidade())) {
+                cidadeFiltro = postings(cidades.get(NomeUtils.normalize(filtro.cidade())));
+            }
+
+            if (StringUtils.hasText(filtro.cep())) {
+
+                var prefixo = digits(filtro.cep());
+                var encontrados = new BitSet();
+
+                ceps.subMap(prefixo, true, prefixo + Character.MAX_VALUE, true).values().forEach(p -> p.addTo(encontrados));
+                cepFiltro = encontrados;
+            }
+
+            Set<String> grams = null;
+            short[] hits = null;
+            String[] prefixos = null;
+            var queryTrigrams = 0;
+            var prefixTrigrams = 0;
+            var filtrados = cidadeFiltro == null ? cepFiltro
+                    : cepFiltro == null || cidadeFiltro.cardinality() < cepFiltro.cardinality() ? cidadeFiltro : cepFiltro;
+            var candidatos = filtrados != null ? filtrados : alive;
+
+            if (tokens != null) {
+
+                grams = trigrams(tokens);
+                queryTrigrams = grams.size();
+                prefixTrigrams = prefixTrigrams(tokens).size();
+                prefixos = Arrays.stream(tokens).map(t -> " " + t).toArray(String[]::new);
+
+                var postings = grams.stream().map(trigrams::get).filter(Objects::nonNull).toList();
+                var totalPostings = postings.stream().mapToLong(p -> p.size).sum();
+
+                // Few pessoas left by cidade or cep are cheaper to compare one by one than counting the postings
+                if (filtrados == null || (long) filtrados.cardinality() * DOCUMENT_SCAN_COST >= totalPostings) {
+
+                    // A prefix match contains every trigram of the tokens but their last ones, and a nome sharing s
+                    // trigrams is similar enough only if s >= MIN_SIMILARITY * (query + nome - s), its nome having at
+                    // least minTrigramCount of them: only the ordinals reaching the lower of the two counts are looked at.
+                    var minSimilar = (int) (MIN_SIMILARITY * (queryTrigrams + minTrigramCount) / (1 + MIN_SIMILARITY));
+                    var minShared = Math.max(1, Math.min(prefixTrigrams, minSimilar));
+
+                    hits = new short[size];
+                    candidatos = new BitSet();
+
+                    for (var list : postings) {
+                        for (int i = 0; i < list.size; i++) {
+                            hits[list.values[i]]++;
+                        }
+                    }
+
+                    // The trigram counts are scanned in order, so the exact similarity is cheaper to check here than
+                    // once per candidate below
+                    var counts = trigramCounts;
+
+                    for (int ordinal = 0; ordinal < hits.length; ordinal++) {
+                        if (hits[ordinal] >= minShared && (hits[ordinal] >= prefixTrigrams
+                                || similarity(hits[ordinal], queryTrigrams, counts[ordinal]) >= MIN_SIMILARITY)) {
+                            candidatos.set(ordinal);
+                        }
+                    }
+                }
+            }
+
+            var de = filtro.nascimentoDe() != null ? filtro.nascimentoDe().toEpochDay() : Long.MIN_VALUE;
+            var ate = filtro.nascimentoAte() != null ? filtro.nascimentoAte().toEpochDay() : Long.MAX_VALUE;
+            var window = offset + limit;
+            var top = new PriorityQueue<>(window + 1, BEST_FIRST.reversed());
+            var total = 0;
+
+            for (int ordinal = candidatos.nextSetBit(0); ordinal >= 0; ordinal = candidatos.nextSetBit(ordinal + 1)) {
+
+                // Dates and trigram counts are read from arrays, the documento is only loaded for the survivors
+                if (!alive.get(ordinal)
+                        || nascimentos[ordinal] < de || nascimentos[ordinal] > ate
+                        || cidadeFiltro != null && !cidadeFiltro.get(ordinal)
+                        || cepFiltro != null && !cepFiltro.get(ordinal)) {
+                    continue;
+                }
+
+                var documento = documentos[ordinal];
+                var score = 0f;
+
+                if (grams != null) {
+
+                    int shared = hits != null ? hits[ordinal] : shared(documento.nome(), grams);
+                    var similarity = similarity(shared, queryTrigrams, trigramCounts[ordinal]);
+                    var prefixo = shared >= prefixTrigrams && matchesPrefixes(documento.nome(), tokens, prefixos);
+
+                    if (!prefixo && similarity < MIN_SIMILARITY) {
+                        continue;
+                    }
+
+                    score = prefixo ? 1 + similarity : similarity;
+                }
+
+                total++;
+
+                var hit = new Hit(ordinal, score, documento.nome());
+
+                if (top.size() < window) {
+                    top.add(hit);
+                } else if (BEST_FIRST.compare(hit, top.peek()) < 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            var ids = top.stream()
+                    .sorted(BEST_FIRST)
+                    .skip(offset)
+                    .map(hit -> documentos[hit.ordinal()].id())
+                    .toList();
+
+            return new Resultado(total, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Documento documento) {
+
+        var previous = ordinals.get(documento.id());
+
+        if (documento.cidades() == null || documento.ceps() == null) {
+
+            var anterior = previous != null ? documentos[previous] : null;
+
+            documento = new Documento(documento.id(), documento.nome(), documento.dataNascimento(),
+                    anterior != null ? anterior.cidades() : Set.of(),
+                    anterior != null ? anterior.ceps() : Set.of());
+        }
+
+        if (previous != null) {
+            kill(previous);
+        }
+
+        var ordinal = size++;
+
+        if (ordinal == documentos.length) {
+            documentos = Arrays.copyOf(documentos, ordinal * 2);
+            trigramCounts = Arrays.copyOf(trigramCounts, ordinal * 2);
+            nascimentos = Arrays.copyOf(nascimentos, ordinal * 2);
+        }
+
+        var grams = documento.nome() != null ? trigrams(documento.nome().split("\\s+")) : Set.<String>of();
+
+        documentos[ordinal] = documento;
+        trigramCounts[ordinal] = (short) Math.min(grams.size(), Short.MAX_VALUE);
+        nascimentos[ordinal] = (int) documento.dataNascimento().toEpochDay();
+        minTrigramCount = Math.min(minTrigramCount, trigramCounts[ordinal]);
+
+        grams.forEach(gram -> trigrams.computeIfAbsent(gram, k -> new IntList()).add(ordinal));
+        documento.cidades().forEach(cidade -> cidades.computeIfAbsent(cidade, k -> new IntList()).add(ordinal));
+        documento.ceps().forEach(cep -> ceps.computeIfAbsent(cep, k -> new IntList()).add(ordinal));
+
+        alive.set(ordinal);
+        ordinals.put(documento.id(), ordinal);
+    }
+
+    private void kill(int ordinal) {
+        alive.clear(ordinal);
+        documentos[ordinal] = null;
+    }
+
+    private void compactIfNeeded() {
+
+        var dead = size - ordinals.size();
+
+        if (dead < INITIAL_CAPACITY || dead < size / 4) {
+            return;
+        }
+
+        var vivos = new ArrayList<Documento>(ordinals.size());
+
+        for (int ordinal = alive.nextSetBit(0); ordinal >= 0; ordinal = alive.nextSetBit(ordinal + 1)) {
+            vivos.add(documentos[ordinal]);
+        }
+
+        ordinals.clear();
+        trigrams.clear();
+        cidades.clear();
+        ceps.clear();
+        alive.clear();
+        documentos = new Documento[Math.max(INITIAL_CAPACITY, vivos.size() * 2)];
+        trigramCounts = new short[documentos.length];
+        nascimentos = new int[documentos.length];
+        minTrigramCount = Short.MAX_VALUE;
+        size = 0;
+
+        vivos.forEach(this::index);
+    }
+
+    /**
+     * Whether every token is the prefix of some word of the nome.
+     *
+     * @param nome     the normalized nome
+     * @param tokens   the tokens
+     * @param prefixos the tokens preceded by a space
+     * @return the boolean
+     */
+    private static boolean matchesPrefixes(String nome, String[] tokens, String[] prefixos) {
+
+        for (int i = 0; i < tokens.length; i++) {
+            if (!nome.startsWith(tokens[i]) && !nome.contains(prefixos[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static float similarity(int shared, int queryTrigrams, int nomeTrigrams) {
+        return (float) shared / (queryTrigrams + nomeTrigrams - shared);
+    }
+
+    private static Set<String> trigrams(String[] words) {
+
+        var grams = new HashSet<String>();
+
+        for (var word : words) {
+
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            var padded = "  " + word + " ";
+
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+
+        return grams;
+    }
+
+    private static int shared(String nome, Set<String> grams) {
+
+        var shared = 0;
+
+        if (nome == null) {
+            return shared;
+        }
+
+        for (var gram : trigrams(nome.split("\\s+"))) {
+            if (grams.contains(gram)) {
+                shared++;
+            }
+        }
+
+        return shared;
+    }
+
+    private static Set<String> prefixTrigrams(String[] words) {
+
+        var grams = new HashSet<String>();
+
+        for (var word : words) {
+
+            var padded = "  " + word;
+
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+
+        return grams;
+    }
+
+    private static BitSet postings(IntList list) {
+
+        var bits = new BitSet();
+
+        if (list != null) {
+            list.addTo(bits);
+        }
+
+        return bits;
+    }
+
+    private static String digits(String cep) {
+        return cep.replaceAll("\\D", "");
+    }
+
+    /**
+     * The indexed fields of one pessoa.
+     *
+     * @param id             the id
+     * @param nome           the normalized nome
+     * @param dataNascimento the data nascimento
+     * @param cidades        the normalized cidades of the enderecos, null to keep the indexed ones
+     * @param ceps           the ceps of the enderecos, digits only, null to keep the indexed ones
+     */
+    public record Documento(UUID id, String nome, LocalDate dataNascimento, Set<String> cidades, Set<String> ceps) {
+
+        /**
+         * Build the documento, normalizing the nome, cidades and ceps.
+         *
+         * @param id             the id
+         * @param nome           the nome
+         * @param dataNascimento the data nascimento
+         * @param cidades        the cidades, null to keep the indexed ones
+         * @param ceps           the ceps, null to keep the indexed ones
+         * @return the documento
+         */
+        public static Documento of(UUID id, String nome, LocalDate dataNascimento, Collection<String> cidades, Collection<String> ceps) {
+
+            return new Documento(
+                    id,
+                    NomeUtils.normalize(nome),
+                    dataNascimento,
+                    cidades != null ? cidades.stream().filter(Objects::nonNull).map(NomeUtils::normalize).collect(Collectors.toUnmodifiableSet()) : null,
+                    ceps != null ? ceps.stream().filter(Objects::nonNull).map(PessoaSearchIndex::digits).collect(Collectors.toUnmodifiableSet()) : null
+            );
+        }
+    }
+
+    /**
+     * One page of a search.
+     *
+     * @param total the number of matches
+     * @param ids   the ids of the page, best match first
+     */
+    public record Resultado(int total, List<UUID> ids) {
+    }
+
+    private record Hit(int ordinal, float score, String nome) {
+    }
+
+    /**
+     * A growable array of ordinals, in the order they were added.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        private void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import io.github.edsonisaac.psattornatus.dtos.PessoaFiltroDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaIndiceDTO;
+import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.events.EnderecosAlteradosEvent;
+import io.github.edsonisaac.psattornatus.events.PessoasSalvasEvent;
+import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link PessoaSearchIndex} in sync with the database and searches it.
+ * <p>
+ * The index is rebuilt once the application is ready. Saved pessoas are indexed from the saved state and pessoas whose
+ * enderecos changed are read back, both after the transaction commits. Pessoas written while a rebuild runs are read
+ * back again once it ends.
+ */
+@Service
+@Timed(value = PessoaService.METRIC, histogram = true)
+@RequiredArgsConstructor(onConstructor_= {@Autowired})
+public class PessoaSearchService {
+
+    /**
+     * The constant MAX_SEARCH_SIZE.
+     */
+    public static final int MAX_SEARCH_SIZE = 100;
+
+    /**
+     * The constant MAX_SEARCH_WINDOW, how deep a search can be paged.
+     */
+    public static final int MAX_SEARCH_WINDOW = 10_000;
+
+    private final PessoaRepository repository;
+
+    private final Set<UUID> pendentes = ConcurrentHashMap.newKeySet();
+    private volatile PessoaSearchIndex index = new PessoaSearchIndex();
+    private volatile boolean rebuilding;
+
+    /**
+     * Search a page of pessoas.
+     *
+     * @param filtro the filtro
+     * @param page   the page, from zero
+     * @param size   the page size
+     * @return the resultado
+     */
+    public PessoaSearchIndex.Resultado search(PessoaFiltroDTO filtro, int page, int size) {
+
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new ValidationException(MessageUtils.PAGE_SIZE_INVALID);
+        }
+
+        if (page < 0 || (long) page * size + size > MAX_SEARCH_WINDOW) {
+            throw new ValidationException(MessageUtils.PAGE_INVALID);
+        }
+
+        return index.search(filtro, page * size, size);
+    }
+
+    /**
+     * Rebuild the index from every pessoa.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        rebuilding = true;
+
+        try {
+            var index = new PessoaSearchIndex();
+            var lote = new ArrayList<PessoaSearchIndex.Documento>(PessoaService.IMPORT_CHUNK_SIZE);
+
+            try (var linhas = repository.streamIndice()) {
+                forEachDocumento(linhas, documento -> {
+                    lote.add(documento);
+
+                    if (lote.size() == PessoaService.IMPORT_CHUNK_SIZE) {
+                        index.putAll(lote);
+                        lote.clear();
+                    }
+                });
+            }
+
+            index.putAll(lote);
+            this.index = index;
+        } finally {
+            rebuilding = false;
+        }
+
+        if (!pendentes.isEmpty()) {
+            var ids = List.copyOf(pendentes);
+            pendentes.removeAll(ids);
+            reindex(ids);
+        }
+    }
+
+    /**
+     * Index the saved pessoas, once their transaction has committed.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoasSalvas(PessoasSalvasEvent event) {
+
+        if (rebuilding) {
+            event.pessoas().forEach(p -> pendentes.add(p.id()));
+        }
+
+        index.putAll(event.pessoas().stream().map(this::documento).toList());
+    }
+
+    /**
+     * Read back and index the pessoas whose enderecos changed, once their transaction has committed.
+     *
+     * @param event the event
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnderecosAlterados(EnderecosAlteradosEvent event) {
+
+        if (rebuilding) {
+            pendentes.add(event.pessoaId());
+        }
+
+        reindex(List.of(event.pessoaId()));
+    }
+
+    private void reindex(Collection<UUID> ids) {
+
+        var index = this.index;
+        var removidos = new HashSet<>(ids);
+        var documentos = new ArrayList<PessoaSearchIndex.Documento>();
+
+        forEachDocumento(repository.findIndiceByIdIn(ids).stream(), documento -> {
+            removidos.remove(documento.id());
+            documentos.add(documento);
+        });
+
+        index.putAll(documentos);
+        removidos.forEach(index::remove);
+    }
+
+    /**
+     * Group the rows of each pessoa, which must be consecutive, into one documento.
+     *
+     * @param linhas   the linhas
+     * @param consumer the consumer
+     */
+    private void forEachDocumento(Stream<PessoaIndiceDTO> linhas, Consumer<PessoaSearchIndex.Documento> consumer) {
+
+        var atual = new ArrayList<PessoaIndiceDTO>();
+
+        linhas.forEach(linha -> {
+
+            if (!atual.isEmpty() && !atual.get(0).id().equals(linha.id())) {
+                consumer.accept(documento(atual));
+                atual.clear();
+            }
+
+            atual.add(linha);
+        });
+
+        if (!atual.isEmpty()) {
+            consumer.accept(documento(atual));
+        }
+    }
+
+    private PessoaSearchIndex.Documento documento(PessoaDTO pessoa) {
+
+        var enderecos = pessoa.enderecos();
+
+        return PessoaSearchIndex.Documento.of(
+                pessoa.id(),
+                pessoa.nome(),
+                pessoa.dataNascimento(),
+                enderecos != null ? enderecos.stream().map(EnderecoDTO::cidade).toList() : null,
+                enderecos != null ? enderecos.stream().map(EnderecoDTO::cep).toList() : null);
+    }
+
+    private PessoaSearchIndex.Documento documento(List<PessoaIndiceDTO> linhas) {
+
+        var primeira = linhas.get(0);
+
+        return PessoaSearchIndex.Documento.of(
+                primeira.id(),
+                primeira.nomeNormalizado(),
+                primeira.dataNascimento(),
+                linhas.stream().map(PessoaIndiceDTO::cidade).toList(),
+                linhas.stream().map(PessoaIndiceDTO::cep).toList());
+    }
+}
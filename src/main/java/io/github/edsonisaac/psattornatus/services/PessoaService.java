@@ -1,33 +1,176 @@
 package io.github.edsonisaac.psattornatus.services;
 
+import io.github.edsonisaac.psattornatus.configs.CacheConfig;
+import io.github.edsonisaac.psattornatus.dtos.ImportacaoLinhaDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
 import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.events.PessoasSalvasEvent;
 import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.exceptions.PreconditionFailedException;
 import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
 import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
 import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.github.edsonisaac.psattornatus.utils.NomeUtils;
+import io.github.edsonisaac.psattornatus.utils.RetryUtils;
+import io.github.edsonisaac.psattornatus.utils.SingleFlight;
+import io.github.edsonisaac.psattornatus.utils.TransactionUtils;
+import io.github.edsonisaac.psattornatus.utils.ValidationUtils;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * The type Pessoa service.
  */
 @Service
+@Timed(value = PessoaService.METRIC, histogram = true)
 @RequiredArgsConstructor(onConstructor_= {@Autowired})
 public class PessoaService {
 
+    /**
+     * The constant MAX_PAGE_SIZE.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * The constant IMPORT_CHUNK_SIZE.
+     */
+    public static final int IMPORT_CHUNK_SIZE = 500;
+
+    /**
+     * The constant FIND_CHUNK_SIZE, how many ids are looked up per query; a power of two, as IN lists are padded to one.
+     */
+    public static final int FIND_CHUNK_SIZE = 256;
+
+    /**
+     * The constant WRITE_ATTEMPTS, how many times a write losing to concurrent writes is tried. Each round of writers
+     * of the same pessoa lets one of them commit, so it is above the number of writers a pessoa is expected to get at
+     * once.
+     */
+    public static final int WRITE_ATTEMPTS = 12;
+
+    /**
+     * The constant METRIC.
+     */
+    public static final String METRIC = "app.service";
+
+    /**
+     * The constant NOME_LOOKUPS_METRIC.
+     */
+    public static final String NOME_LOOKUPS_METRIC = "app.nome.lookups";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
+    private final EnderecoRepository enderecoRepository;
+    private final MeterRegistry meterRegistry;
+    private final NomeFilterService nomeFilter;
     private final PessoaRepository repository;
+    private final SingleFlight<UUID, VersaoDTO> versaoLoads;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
 
     /**
-     * Find all list.
+     * Find a page of pessoas ordered by id, with their enderecos, read straight into dtos.
      *
+     * @param cursor the last id of the previous page, or null for the first page
+     * @param size   the page size
      * @return the list
      */
-    public List<Pessoa> findAll() {
-        return repository.findAll();
+    @Transactional(readOnly = true)
+    public List<PessoaDTO> findAll(UUID cursor, int size) {
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException(MessageUtils.PAGE_SIZE_INVALID);
+        }
+
+        var pageable = PageRequest.ofSize(size);
+        var ids = cursor == null ? repository.findPageIds(pageable) : repository.findPageIdsAfter(cursor, pageable);
+
+        return ids.isEmpty() ? List.of() : PessoaDTO.toDTOs(repository.findDTOsByIdIn(ids));
+    }
+
+    /**
+     * Walk every pessoa page by page, so memory stays bounded by the page size.
+     *
+     * @param size     the page size
+     * @param consumer the consumer
+     */
+    public void forEach(int size, Consumer<PessoaDTO> consumer) {
+
+        UUID cursor = null;
+        List<PessoaDTO> pessoas;
+
+        do {
+            pessoas = findAll(cursor, size);
+            pessoas.forEach(consumer);
+
+            if (!pessoas.isEmpty()) {
+                cursor = pessoas.get(pessoas.size() - 1).id();
+            }
+        } while (pessoas.size() == size);
+    }
+
+    /**
+     * Find the pessoas with their enderecos, in the order of the ids. Cached pessoas skip the database; the others are
+     * read in chunks of ids, one read-only query per chunk. Unknown ids are skipped.
+     * <p>
+     * The pessoas read are not cached: a write committing between the query and a put would have its eviction undone,
+     * leaving the pessoa it replaced cached. The cache is only filled by {@link #findDTOById(UUID)}, whose load an
+     * eviction waits for.
+     *
+     * @param ids the ids
+     * @return the list
+     */
+    public List<PessoaDTO> findAllById(List<UUID> ids) {
+
+        if (ids.size() > MAX_PAGE_SIZE || ids.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException(MessageUtils.IDS_INVALID);
+        }
+
+        var cache = cacheManager.getCache(CacheConfig.PESSOAS);
+        var pessoas = new HashMap<UUID, PessoaDTO>();
+        var faltantes = new ArrayList<UUID>();
+
+        for (var id : new LinkedHashSet<>(ids)) {
+
+            var pessoa = cache != null ? cache.get(id, PessoaDTO.class) : null;
+
+            if (pessoa != null) {
+                pessoas.put(id, pessoa);
+            } else {
+                faltantes.add(id);
+            }
+        }
+
+        for (int i = 0; i < faltantes.size(); i += FIND_CHUNK_SIZE) {
+
+            var chunk = faltantes.subList(i, Math.min(i + FIND_CHUNK_SIZE, faltantes.size()));
+
+            PessoaDTO.toDTOs(TransactionUtils.readOnly(transactionTemplate, () -> repository.findDTOsByIdIn(chunk)))
+                    .forEach(p -> pessoas.put(p.id(), p));
+        }
+
+        return ids.stream().map(pessoas::get).filter(Objects::nonNull).toList();
     }
 
     /**
@@ -36,6 +179,7 @@ public class PessoaService {
      * @param id the id
      * @return the pessoa
      */
+    @Transactional(readOnly = true)
     public Pessoa findById(UUID id) {
 
         return repository.findById(id).orElseThrow(() -> {
@@ -44,38 +188,296 @@ public class PessoaService {
     }
 
     /**
-     * Save pessoa.
+     * Find by id pessoa dto, read through the pessoas cache.
+     *
+     * @param id the id
+     * @return the pessoa dto
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PESSOAS, key = "#id", sync = true)
+    public PessoaDTO findDTOById(UUID id) {
+
+        return PessoaDTO.toDTOs(repository.findDTOsByIdIn(List.of(id))).stream().findFirst().orElseThrow(() -> {
+            throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
+        });
+    }
+
+    /**
+     * Find the versao and data atualizacao of the pessoa, without loading it. Concurrent calls for the same pessoa
+     * share one read-only query.
+     *
+     * @param id the id
+     * @return the versao dto
+     */
+    public VersaoDTO findVersaoById(UUID id) {
+
+        return versaoLoads.load(id, () -> TransactionUtils.readOnly(transactionTemplate, () -> repository.findVersaoById(id))
+                .orElseThrow(() -> {
+                    throw new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
+                }));
+    }
+
+    /**
+     * Save pessoa, overwriting the current one.
      *
      * @param pessoa the pessoa
      * @return the pessoa
      */
+    @CacheEvict(cacheNames = CacheConfig.PESSOAS, key = "#pessoa.id", condition = "#pessoa != null && #pessoa.id != null")
     public Pessoa save(Pessoa pessoa) {
+        return save(pessoa, null);
+    }
+
+    /**
+     * Save pessoa, only when its current versao is one of the given versoes. Without versoes the pessoa overwrites
+     * the current one, and the write is retried when a concurrent one commits after the current versao was read.
+     *
+     * @param pessoa  the pessoa
+     * @param versoes the expected versoes, or null to overwrite any versao
+     * @return the pessoa
+     */
+    @CacheEvict(cacheNames = CacheConfig.PESSOAS, key = "#pessoa.id", condition = "#pessoa != null && #pessoa.id != null")
+    public Pessoa save(Pessoa pessoa, Collection<Long> versoes) {
 
         if (pessoa == null) {
             throw new ValidationException(MessageUtils.PESSOA_NULL);
         }
 
         if (validatePessoa(pessoa)) {
-            pessoa = repository.save(pessoa);
+
+            var salva = RetryUtils.onConflict(WRITE_ATTEMPTS, () -> merge(pessoa, versoes));
+
+            versaoLoads.forget(salva.getId());
+            nomeFilter.add(NomeUtils.normalize(salva.getNome()));
+            eventPublisher.publishEvent(new PessoasSalvasEvent(List.of(new PessoaDTO(salva.getId(), salva.getNome(),
+                    salva.getDataNascimento(), null, salva.getVersao(), salva.getDataAtualizacao()))));
+
+            return salva;
         }
 
         return pessoa;
     }
 
     /**
-     * Validate pessoa.
+     * Change some fields of the pessoa, only when its current versao is one of the given versoes. The pessoa is loaded
+     * once, changed in place and only the changed columns are written; the nome is only checked when it changes. The
+     * change is applied again to the pessoa read anew when a concurrent write commits first.
+     *
+     * @param id      the id
+     * @param patch   the change
+     * @param versoes the expected versoes, or null to change any versao
+     * @return the pessoa
+     */
+    @CacheEvict(cacheNames = CacheConfig.PESSOAS, key = "#id")
+    public Pessoa patch(UUID id, Consumer<Pessoa> patch, Collection<Long> versoes) {
+
+        var salva = RetryUtils.onConflict(WRITE_ATTEMPTS, () -> {
+            try {
+                return transactionTemplate.execute(s -> {
+
+                    var pessoa = repository.findById(id)
+                            .orElseThrow(() -> new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND));
+
+                    if (versoes != null && !versoes.contains(pessoa.getVersao())) {
+                        throw new PreconditionFailedException(MessageUtils.VERSION_MISMATCH);
+                    }
+
+                    var nome = pessoa.getNome();
+
+                    patch.accept(pessoa);
+
+                    var erro = ValidationUtils.firstViolation(validator, pessoa);
+
+                    if (erro != null) {
+                        throw new ValidationException(erro);
+                    }
+
+                    if (!Objects.equals(nome, pessoa.getNome())) {
+                        validatePessoa(pessoa);
+                    }
+
+                    return pessoa;
+                });
+            } catch (OptimisticLockingFailureException ex) {
+
+                if (versoes != null) {
+                    throw new PreconditionFailedException(MessageUtils.VERSION_MISMATCH);
+                }
+
+                throw ex;
+            }
+        });
+
+        versaoLoads.forget(id);
+        nomeFilter.add(NomeUtils.normalize(salva.getNome()));
+        eventPublisher.publishEvent(new PessoasSalvasEvent(List.of(new PessoaDTO(salva.getId(), salva.getNome(),
+                salva.getDataNascimento(), null, salva.getVersao(), salva.getDataAtualizacao()))));
+
+        return salva;
+    }
+
+    /**
+     * Write the pessoa over its current versao, which is checked against the expected versoes. A concurrent write
+     * committed after the versao was read fails the versao check of the update.
+     *
+     * @param pessoa  the pessoa
+     * @param versoes the expected versoes, or null to overwrite any versao
+     * @return the pessoa
+     */
+    private Pessoa merge(Pessoa pessoa, Collection<Long> versoes) {
+
+        try {
+            return transactionTemplate.execute(s -> {
+
+                if (pessoa.getId() != null) {
+
+                    var atual = repository.findVersaoById(pessoa.getId()).map(VersaoDTO::versao);
+
+                    if (versoes != null && (atual.isEmpty() || !versoes.contains(atual.get()))) {
+                        throw new PreconditionFailedException(MessageUtils.VERSION_MISMATCH);
+                    }
+
+                    atual.ifPresent(pessoa::setVersao);
+                }
+
+                return repository.save(pessoa);
+            });
+        } catch (OptimisticLockingFailureException ex) {
+
+            if (versoes != null) {
+                throw new PreconditionFailedException(MessageUtils.VERSION_MISMATCH);
+            }
+
+            throw ex;
+        }
+    }
+
+    /**
+     * Import a chunk of new pessoas, with their enderecos, in one transaction.
+     * <p>
+     * Duplicate nomes are detected with a single query for the whole chunk, and the ids are always generated
+     * by the application, so the inserts are sent in JDBC batches. Ids sent by the client are ignored.
+     *
+     * @param pessoas the pessoas by line number
+     * @return the result of every line
+     */
+    @Transactional
+    public List<ImportacaoLinhaDTO> saveAll(Map<Integer, Pessoa> pessoas) {
+
+        var linhas = new TreeMap<Integer, ImportacaoLinhaDTO>();
+        var validas = new LinkedHashMap<String, Map.Entry<Integer, Pessoa>>();
+
+        for (var entry : pessoas.entrySet()) {
+
+            var erro = validateImport(entry.getValue());
+
+            if (erro == null && validas.putIfAbsent(NomeUtils.normalize(entry.getValue().getNome()), entry) != null) {
+                erro = MessageUtils.PESSOA_ALREADY_EXISTS;
+            }
+
+            if (erro != null) {
+                linhas.put(entry.getKey(), ImportacaoLinhaDTO.rejeitada(entry.getKey(), erro));
+            }
+        }
+
+        if (!validas.isEmpty()) {
+            repository.findNomesNormalizadosIn(validas.keySet()).forEach(nome -> {
+                var linha = validas.remove(nome).getKey();
+                linhas.put(linha, ImportacaoLinhaDTO.rejeitada(linha, MessageUtils.PESSOA_ALREADY_EXISTS));
+            });
+        }
+
+        var novas = validas.values().stream().map(Map.Entry::getValue).toList();
+
+        // flushed through the repository, so the errors of the batch are translated like those of any other write
+        repository.saveAll(novas);
+        enderecoRepository.saveAllAndFlush(novas.stream()
+                .filter(p -> p.getEnderecos() != null)
+                .flatMap(p -> p.getEnderecos().stream())
+                .toList());
+
+        entityManager.clear();
+
+        validas.keySet().forEach(nomeFilter::add);
+
+        if (!novas.isEmpty()) {
+            eventPublisher.publishEvent(new PessoasSalvasEvent(novas.stream().map(p -> PessoaDTO.toDTO(p)).toList()));
+        }
+
+        validas.values().forEach(e -> linhas.put(e.getKey(), ImportacaoLinhaDTO.criada(e.getKey(), e.getValue().getId())));
+
+        return List.copyOf(linhas.values());
+    }
+
+    /**
+     * Validate pessoa for import.
+     *
+     * @param pessoa the pessoa
+     * @return the error message, or null when valid
+     */
+    private String validateImport(Pessoa pessoa) {
+
+        pessoa.setId(null);
+
+        if (pessoa.getEnderecos() != null) {
+            pessoa.getEnderecos().forEach(e -> {
+                e.setId(null);
+                e.setPessoa(pessoa);
+            });
+
+            // the enderecos were hashed by the ids just cleared
+            pessoa.setEnderecos(new HashSet<>(pessoa.getEnderecos()));
+        }
+
+        var erro = ValidationUtils.firstViolation(validator, pessoa);
+
+        if (erro != null) {
+            return erro;
+        }
+
+        if (pessoa.getEnderecos() != null && pessoa.getEnderecos().stream().filter(Endereco::getPrincipal).count() > 1) {
+            return MessageUtils.ENDERECO_PRINCIPAL_DUPLICADO;
+        }
+
+        return null;
+    }
+
+    /**
+     * Validate pessoa. The nome is only looked up when the nome filter says it might already be registered.
      *
      * @param pessoa the pessoa
      * @return the boolean
      */
     private boolean validatePessoa(Pessoa pessoa) {
 
-        var pessoa_findByNome = repository.findByNomeIgnoreCase(pessoa.getNome()).orElse(null);
+        var sample = Timer.start(meterRegistry);
+        var exception = "none";
 
-        if (pessoa_findByNome != null && !pessoa_findByNome.equals(pessoa)) {
-            throw new ValidationException("Pessoa já cadastrada!");
-        }
+        try {
+            var nome = NomeUtils.normalize(pessoa.getNome());
+
+            if (nome == null || !nomeFilter.mightExist(nome)) {
+                meterRegistry.counter(NOME_LOOKUPS_METRIC, "outcome", "skipped").increment();
+                return true;
+            }
 
-        return true;
+            meterRegistry.counter(NOME_LOOKUPS_METRIC, "outcome", "queried").increment();
+
+            var pessoa_findByNome = repository.findByNomeNormalizado(nome).orElse(null);
+
+            if (pessoa_findByNome != null && !pessoa_findByNome.equals(pessoa)) {
+                throw new ValidationException(MessageUtils.PESSOA_ALREADY_EXISTS);
+            }
+
+            return true;
+        } catch (RuntimeException ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .tags("class", PessoaService.class.getName(), "method", "validatePessoa", "exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.edsonisaac.psattornatus.configs.ResponseCacheProperties;
+import io.github.edsonisaac.psattornatus.events.EnderecosAlteradosEvent;
+import io.github.edsonisaac.psattornatus.events.PessoasSalvasEvent;
+import io.github.edsonisaac.psattornatus.utils.EtagUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the serialized responses of the pessoas and of their enderecos, in JSON and in CBOR, with the versao of the
+ * pessoa they were serialized from. A response is only sent again for the same versao; a write of the pessoa or of one
+ * of its enderecos drops its responses once it commits.
+ * <p>
+ * The cache is bounded by the total size of the bytes kept, and its hits, misses and size are exposed as metrics.
+ */
+@Service
+public class ResponseCacheService {
+
+    /**
+     * The constant CACHE.
+     */
+    public static final String CACHE = "responses";
+
+    /**
+     * The constant BYTES_METRIC, the total size of the responses kept.
+     */
+    public static final String BYTES_METRIC = "app.response.cache.bytes";
+
+    private static final List<MediaType> TIPOS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+
+    /**
+     * The resources whose responses are kept, all of them of one pessoa.
+     */
+    public enum Recurso {
+
+        /**
+         * The pessoa.
+         */
+        PESSOA,
+
+        /**
+         * The enderecos of the pessoa.
+         */
+        ENDERECOS
+    }
+
+    private record Chave(Recurso recurso, UUID id, MediaType tipo) {
+    }
+
+    private record Resposta(long versao, byte[] corpo) {
+    }
+
+    private final Cache<Chave, Resposta> cache;
+    private final ObjectMapper json;
+    private final ObjectMapper cbor;
+
+    /**
+     * Instantiates a new Response cache service.
+     *
+     * @param mapper        the mapper
+     * @param cborConverter the cbor converter
+     * @param properties    the properties
+     * @param registry      the registry
+     */
+    @Autowired
+    public ResponseCacheService(ObjectMapper mapper, MappingJackson2CborHttpMessageConverter cborConverter,
+                                ResponseCacheProperties properties, MeterRegistry registry) {
+        this.json = mapper;
+        this.cbor = cborConverter.getObjectMapper();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maximumSize().toBytes())
+                .weigher((Chave chave, Resposta resposta) -> resposta.corpo().length)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE);
+        Gauge.builder(BYTES_METRIC, this, ResponseCacheService::bytes).register(registry);
+    }
+
+    /**
+     * The type of the response negotiated from an Accept header, as for the ETag.
+     *
+     * @param accept the accepted media types
+     * @return JSON or CBOR, or null when neither is acceptable
+     */
+    public static MediaType tipo(List<MediaType> accept) {
+
+        if (EtagUtils.cbor(accept)) {
+            return MediaType.APPLICATION_CBOR;
+        }
+
+        return accept.isEmpty() || accept.stream().anyMatch(t -> t.getQualityValue() > 0 && t.isCompatibleWith(MediaType.APPLICATION_JSON))
+                ? MediaType.APPLICATION_JSON : null;
+    }
+
+    /**
+     * The response of the resource of the pessoa at the versao, serialized from the body only when none of that versao
+     * is kept.
+     *
+     * @param recurso the recurso
+     * @param id      the pessoa id
+     * @param versao  the versao of the pessoa
+     * @param tipo    JSON or CBOR
+     * @param body    the body, read only when the response is not kept
+     * @return the bytes
+     */
+    public byte[] get(Recurso recurso, UUID id, long versao, MediaType tipo, Supplier<?> body) {
+
+        var chave = new Chave(recurso, id, tipo);
+        var resposta = cache.getIfPresent(chave);
+
+        if (resposta == null || resposta.versao() != versao) {
+
+            try {
+                resposta = new Resposta(versao, (MediaType.APPLICATION_CBOR.equals(tipo) ? cbor : json).writeValueAsBytes(body.get()));
+            } catch (JsonProcessingException ex) {
+                throw new UncheckedIOException(ex);
+            }
+
+            cache.put(chave, resposta);
+        }
+
+        return resposta.corpo();
+    }
+
+    /**
+     * Drop every response of the pessoa.
+     *
+     * @param id the pessoa id
+     */
+    public void evict(UUID id) {
+
+        for (var recurso : Recurso.values()) {
+            for (var tipo : TIPOS) {
+                cache.invalidate(new Chave(recurso, id, tipo));
+            }
+        }
+    }
+
+    /**
+     * The total size of the responses kept.
+     *
+     * @return the bytes
+     */
+    public long bytes() {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    /**
+     * Drop the responses of the saved pessoas, once their transaction has committed.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoasSalvas(PessoasSalvasEvent event) {
+        event.pessoas().forEach(p -> evict(p.id()));
+    }
+
+    /**
+     * Drop the responses of the pessoa whose enderecos changed, once their transaction has committed.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnderecosAlterados(EnderecosAlteradosEvent event) {
+        evict(event.pessoaId());
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe Bloom filter of strings: {@link #mightContain(String)} never answers false for a value that was
+ * {@link #put(String) put}, and answers true for an absent value with about the configured probability while no more
+ * than the expected number of values were put.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long size;
+    private final int hashes;
+
+    /**
+     * Instantiates a new Bloom filter.
+     *
+     * @param expectedInsertions        the expected insertions
+     * @param falsePositiveProbability the false positive probability
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+
+        var n = Math.max(1, expectedInsertions);
+        var m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+
+        this.bits = new AtomicLongArray(Math.toIntExact((m + 63) / 64));
+        this.size = bits.length() * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+    }
+
+    /**
+     * Put the value.
+     *
+     * @param value the value
+     */
+    public void put(String value) {
+
+        var h1 = hash(value);
+        var h2 = mix(h1) | 1;
+
+        for (int i = 0; i < hashes; i++) {
+
+            var bit = Math.floorMod(h1 + i * h2, size);
+            var word = (int) (bit >>> 6);
+            var mask = 1L << bit;
+
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndUpdate(word, w -> w | mask);
+            }
+        }
+    }
+
+    /**
+     * Whether the value might have been put.
+     *
+     * @param value the value
+     * @return false when the value was definitely never put
+     */
+    public boolean mightContain(String value) {
+
+        var h1 = hash(value);
+        var h2 = mix(h1) | 1;
+
+        for (int i = 0; i < hashes; i++) {
+
+            var bit = Math.floorMod(h1 + i * h2, size);
+
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, finalized with {@link #mix(long)}.
+     *
+     * @param value the value
+     * @return the hash
+     */
+    private static long hash(String value) {
+
+        var hash = 0xcbf29ce484222325L;
+
+        for (var b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        return mix(hash);
+    }
+
+    /**
+     * The murmur3 64-bit finalizer, also used to derive the second hash.
+     *
+     * @param hash the hash
+     * @return the mixed hash
+     */
+    private static long mix(long hash) {
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
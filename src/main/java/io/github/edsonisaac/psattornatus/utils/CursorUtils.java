@@ -0,0 +1,53 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * The type Cursor utils.
+ */
+public abstract class CursorUtils {
+
+    /**
+     * Encode the id as an opaque continuation token.
+     *
+     * @param id the last id of the page
+     * @return the cursor
+     */
+    public static String encode(UUID id) {
+
+        var buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decode the continuation token.
+     *
+     * @param cursor the cursor
+     * @return the last id of the previous page, or null for the first page
+     */
+    public static UUID decode(String cursor) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            var buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+
+            if (buffer.remaining() != 16) {
+                throw new ValidationException(MessageUtils.CURSOR_INVALID);
+            }
+
+            return new UUID(buffer.getLong(), buffer.getLong());
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException(MessageUtils.CURSOR_INVALID);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Etag utils.
+ */
+public abstract class EtagUtils {
+
+    private static final String CBOR_SUFFIX = "-cbor";
+
+    /**
+     * The strong ETag of the given versao, in JSON.
+     *
+     * @param versao the versao
+     * @return the etag
+     */
+    public static String of(long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    /**
+     * The strong ETag of the given versao, in the representation negotiated from an Accept header. A strong ETag
+     * identifies the exact bytes sent, so the CBOR representation has its own: the versao with a {@code -cbor} suffix.
+     *
+     * @param versao the versao
+     * @param accept the accepted media types
+     * @return the etag
+     */
+    public static String of(long versao, List<MediaType> accept) {
+        return cbor(accept) ? "\"" + versao + CBOR_SUFFIX + "\"" : of(versao);
+    }
+
+    /**
+     * Whether the CBOR representation is negotiated from an Accept header. Like Spring MVC, the accepted types are
+     * sorted by quality and then specificity, the first acceptable one wins and wildcards fall back to JSON; types
+     * with a quality of 0 are not acceptable.
+     *
+     * @param accept the accepted media types
+     * @return the boolean
+     */
+    public static boolean cbor(List<MediaType> accept) {
+
+        var tipos = new ArrayList<>(accept);
+
+        MimeTypeUtils.sortBySpecificity(tipos);
+
+        for (var type : tipos) {
+
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+
+            if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(type)) {
+                return true;
+            }
+
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Whether any of the ETags of an If-None-Match header matches, using the weak comparison of RFC 9110.
+     *
+     * @param etags the etags sent by the client
+     * @param etag  the current etag
+     * @return the boolean
+     */
+    public static boolean matches(List<String> etags, String etag) {
+        return etags.stream().anyMatch(e -> e.equals("*") || weak(e).equals(weak(etag)));
+    }
+
+    /**
+     * The versoes listed by an If-Match header, in any representation. The comparison is strong, so weak and unknown
+     * ETags match no versao.
+     *
+     * @param etags the etags sent by the client
+     * @return the versoes, or null when the header is absent or is "*"
+     */
+    public static List<Long> versoes(List<String> etags) {
+
+        if (etags.isEmpty() || etags.contains("*")) {
+            return null;
+        }
+
+        var versoes = new ArrayList<Long>();
+
+        for (var etag : etags) {
+
+            if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+
+                var versao = etag.substring(1, etag.length() - 1);
+
+                try {
+                    versoes.add(Long.parseLong(versao.endsWith(CBOR_SUFFIX) ? versao.substring(0, versao.length() - CBOR_SUFFIX.length()) : versao));
+                } catch (NumberFormatException ex) {
+                    // not one of ours
+                }
+            }
+        }
+
+        return versoes;
+    }
+
+    private static String weak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -5,6 +5,21 @@ package io.github.edsonisaac.psattornatus.utils;
  */
 public abstract class MessageUtils {
 
+    /**
+     * The constant CONCURRENT_UPDATE.
+     */
+    public static final String CONCURRENT_UPDATE = "Registro alterado por outra requisição, tente novamente!";
+
+    /**
+     * The constant CURSOR_INVALID.
+     */
+    public static final String CURSOR_INVALID = "Cursor inválido!";
+
+    /**
+     * The constant DATA_INTEGRITY_VIOLATION.
+     */
+    public static final String DATA_INTEGRITY_VIOLATION = "Os dados conflitam com um registro existente!";
+
     /**
      * The constant ENDERECO_NOT_FOUND.
      */
@@ -15,6 +30,41 @@ public abstract class MessageUtils {
      */
     public static final String ENDERECO_NULL = "Endereço nulo!";
 
+    /**
+     * The constant ENDERECO_PRINCIPAL_DUPLICADO.
+     */
+    public static final String ENDERECO_PRINCIPAL_DUPLICADO = "Mais de um endereço principal!";
+
+    /**
+     * The constant IDS_INVALID.
+     */
+    public static final String IDS_INVALID = "Lista de ids inválida!";
+
+    /**
+     * The constant LINHA_INVALIDA.
+     */
+    public static final String LINHA_INVALIDA = "Linha inválida!";
+
+    /**
+     * The constant PAGE_INVALID.
+     */
+    public static final String PAGE_INVALID = "Página inválida!";
+
+    /**
+     * The constant PAGE_SIZE_INVALID.
+     */
+    public static final String PAGE_SIZE_INVALID = "Tamanho de página inválido!";
+
+    /**
+     * The constant PATCH_INVALID.
+     */
+    public static final String PATCH_INVALID = "Alteração inválida!";
+
+    /**
+     * The constant PESSOA_ALREADY_EXISTS.
+     */
+    public static final String PESSOA_ALREADY_EXISTS = "Pessoa já cadastrada!";
+
     /**
      * The constant PESSOA_NOT_FOUND.
      */
@@ -24,4 +74,14 @@ public abstract class MessageUtils {
      * The constant PESSOA_NULL.
      */
     public static final String PESSOA_NULL = "Pessoa nula!";
-}
\ No newline at end of file
+
+    /**
+     * The constant SERVICE_UNAVAILABLE.
+     */
+    public static final String SERVICE_UNAVAILABLE = "Servidor ocupado, tente novamente!";
+
+    /**
+     * The constant VERSION_MISMATCH.
+     */
+    public static final String VERSION_MISMATCH = "A versão informada não é a atual!";
+}
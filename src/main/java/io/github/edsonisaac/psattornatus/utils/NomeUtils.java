@@ -0,0 +1,29 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The type Nome utils.
+ */
+public abstract class NomeUtils {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Fold the nome to the form stored in nome_normalizado: trimmed, without accents and in lower case, so
+     * "José", "jose" and "JOSÉ " are the same nome.
+     *
+     * @param nome the nome
+     * @return the normalized nome, or null when the nome is null
+     */
+    public static String normalize(String nome) {
+
+        if (nome == null) {
+            return null;
+        }
+
+        return MARKS.matcher(Normalizer.normalize(nome.strip(), Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections of one of the replicas to read-only transactions and of the primary to every other one. It
+ * must be asked for a connection once the transaction has started, behind a {@code LazyConnectionDataSourceProxy}.
+ * <p>
+ * A thread that committed a write within the consistency window reads from the primary instead, so a request reads
+ * its own writes even while the replicas lag behind. Writes are marked with {@link #markWrite()} and the mark is
+ * dropped with {@link #clear()} when the request ends.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    /**
+     * How a replica is chosen for each connection.
+     */
+    public enum Selection {
+
+        /**
+         * Each replica in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The replica with the fewest connections in use, in turn on ties.
+         */
+        LEAST_CONNECTIONS
+    }
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final Selection selection;
+    private final long consistencyWindow;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Instantiates a new Replica routing data source.
+     *
+     * @param primary           the primary
+     * @param replicas          the replicas
+     * @param selection         the selection
+     * @param consistencyWindow how long a thread reads from the primary after a write
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Selection selection, Duration consistencyWindow) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.consistencyWindow = consistencyWindow.toNanos();
+    }
+
+    /**
+     * Mark that the current thread committed a write.
+     */
+    public static void markWrite() {
+        LAST_WRITE.set(System.nanoTime());
+    }
+
+    /**
+     * Drop the write mark of the current thread.
+     */
+    public static void clear() {
+        LAST_WRITE.remove();
+    }
+
+    /**
+     * The data source the next connection comes from.
+     *
+     * @return the data source
+     */
+    public DataSource target() {
+
+        var lastWrite = LAST_WRITE.get();
+
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || lastWrite != null && System.nanoTime() - lastWrite < consistencyWindow) {
+            return primary;
+        }
+
+        var start = Math.floorMod(next.getAndIncrement(), replicas.size());
+
+        if (selection == Selection.ROUND_ROBIN) {
+            return replicas.get(start);
+        }
+
+        var target = replicas.get(start);
+        var fewest = activeConnections(target);
+
+        for (int i = 1; i < replicas.size() && fewest > 0; i++) {
+
+            var replica = replicas.get((start + i) % replicas.size());
+            var active = activeConnections(replica);
+
+            if (active < fewest) {
+                target = replica;
+                fewest = active;
+            }
+        }
+
+        return target;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private static int activeConnections(HikariDataSource replica) {
+        var pool = replica.getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+}
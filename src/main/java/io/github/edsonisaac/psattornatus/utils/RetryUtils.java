@@ -0,0 +1,43 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * The type Retry utils.
+ */
+public abstract class RetryUtils {
+
+    private static final int MAX_BACKOFF_SHIFT = 5;
+
+    /**
+     * Run the action, running it again after a short random pause, doubling up to 32 ms, while it loses races with
+     * concurrent transactions (stale versao, lock timeout). The action must run in a transaction of its own, so every
+     * attempt reads again.
+     *
+     * @param <T>      the type of the result
+     * @param attempts the maximum number of attempts
+     * @param action   the action
+     * @return the result
+     */
+    public static <T> T onConflict(int attempts, Supplier<T> action) {
+
+        for (int attempt = 1; ; attempt++) {
+
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException ex) {
+
+                if (attempt >= attempts) {
+                    throw ex;
+                }
+
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(1, 1L << Math.min(attempt, MAX_BACKOFF_SHIFT))));
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares one load among the concurrent callers of the same key: the first caller runs it, the callers arriving while
+ * it runs wait for it and get the same value, or the same exception. Nothing is kept once the load ends, so this is
+ * no cache; the values must not be changed by the callers, as they are shared.
+ * <p>
+ * Every call is counted in {@value #METRIC}, tagged with the name of the load and whether it ran the load or joined
+ * one in flight.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * The constant METRIC.
+     */
+    public static final String METRIC = "app.singleflight";
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+    private final Counter loaded;
+    private final Counter coalesced;
+
+    /**
+     * Instantiates a new Single flight.
+     *
+     * @param meterRegistry the meter registry
+     * @param name          the name of the load
+     */
+    public SingleFlight(MeterRegistry meterRegistry, String name) {
+        this.loaded = meterRegistry.counter(METRIC, "load", name, "outcome", "loaded");
+        this.coalesced = meterRegistry.counter(METRIC, "load", name, "outcome", "coalesced");
+    }
+
+    /**
+     * Load the value of the key, or wait for the load of the key already in flight.
+     *
+     * @param key    the key
+     * @param loader the loader
+     * @return the value
+     */
+    public V load(K key, Supplier<V> loader) {
+
+        var load = new CompletableFuture<V>();
+        var inFlight = loads.putIfAbsent(key, load);
+
+        if (inFlight != null) {
+            coalesced.increment();
+            return join(inFlight);
+        }
+
+        loaded.increment();
+
+        try {
+            var value = loader.get();
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * Stop sharing the load of the key in flight, so the next callers run a new one. Called after the value is
+     * written, as the load in flight may have read it before.
+     *
+     * @param key the key
+     */
+    public void forget(K key) {
+        loads.remove(key);
+    }
+
+    private static <V> V join(CompletableFuture<V> load) {
+
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw ex;
+        }
+    }
+}
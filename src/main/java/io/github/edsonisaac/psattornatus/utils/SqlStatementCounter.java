@@ -0,0 +1,54 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and {@link #stop()}.
+ * <p>
+ * Registered as the session factory statement inspector, it is used per request by the metrics filter and can be
+ * used directly in tests to assert how many statements an operation issues.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    /**
+     * Start counting on the current thread, discarding any previous count.
+     */
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    /**
+     * The statements counted so far on the current thread.
+     *
+     * @return the count
+     */
+    public static long count() {
+        var count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Stop counting on the current thread.
+     *
+     * @return the statements counted since start
+     */
+    public static long stop() {
+        var count = count();
+        COUNT.remove();
+        return count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+
+        var count = COUNT.get();
+
+        if (count != null) {
+            count[0]++;
+        }
+
+        return sql;
+    }
+}
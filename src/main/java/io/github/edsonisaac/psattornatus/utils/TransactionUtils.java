@@ -0,0 +1,29 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * The type Transaction utils.
+ */
+public abstract class TransactionUtils {
+
+    /**
+     * Run the query in a read-only transaction, so it is routed to a replica, for reads that cannot be declared
+     * {@code @Transactional(readOnly = true)} because only part of the method must hold a connection.
+     *
+     * @param <T>      the type of the result
+     * @param template the transaction template, whose transaction manager is used
+     * @param query    the query
+     * @return the result
+     */
+    public static <T> T readOnly(TransactionTemplate template, Supplier<T> query) {
+
+        var readOnly = new TransactionTemplate(template.getTransactionManager(), template);
+
+        readOnly.setReadOnly(true);
+
+        return readOnly.execute(s -> query.get());
+    }
+}
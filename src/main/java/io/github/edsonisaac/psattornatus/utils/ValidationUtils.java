@@ -0,0 +1,51 @@
+package io.github.edsonisaac.psattornatus.utils;
+
+import jakarta.validation.Validator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * The type Validation utils.
+ */
+public abstract class ValidationUtils {
+
+    private static final String NOME_UNIQUE_INDEX = "uk_tb_pessoas_nome_normalizado";
+
+    /**
+     * The first constraint violation of the bean, worded as the API reports invalid request bodies.
+     *
+     * @param validator the validator
+     * @param bean      the bean
+     * @return the error message, or null when valid
+     */
+    public static String firstViolation(Validator validator, Object bean) {
+
+        return validator.validate(bean).stream()
+                .map(v -> StringUtils.capitalize(v.getPropertyPath().toString()) + " " + v.getMessage() + "!")
+                .sorted()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Whether the violation is of the unique index of the normalized nome, that is, a duplicated nome.
+     *
+     * @param ex the ex
+     * @return the boolean
+     */
+    public static boolean isDuplicatedNome(DataIntegrityViolationException ex) {
+        return String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT).contains(NOME_UNIQUE_INDEX);
+    }
+
+    /**
+     * The violation worded as the API reports it.
+     *
+     * @param ex the ex
+     * @return the error message
+     */
+    public static String message(DataIntegrityViolationException ex) {
+        return isDuplicatedNome(ex) ? MessageUtils.PESSOA_ALREADY_EXISTS : MessageUtils.DATA_INTEGRITY_VIOLATION;
+    }
+}
@@ -0,0 +1,11 @@
+CREATE INDEX idx_tb_enderecos_pessoa_id ON tb_enderecos (pessoa_id);
+
+ALTER TABLE tb_pessoas
+    ADD COLUMN nome_normalizado VARCHAR(100) GENERATED ALWAYS AS (LOWER(nome));
+
+CREATE UNIQUE INDEX uk_tb_pessoas_nome_normalizado ON tb_pessoas (nome_normalizado);
+
+ALTER TABLE tb_enderecos
+    ADD COLUMN principal_pessoa_id UUID GENERATED ALWAYS AS (CASE WHEN principal THEN pessoa_id END);
+
+CREATE UNIQUE INDEX uk_tb_enderecos_principal_pessoa_id ON tb_enderecos (principal_pessoa_id);
@@ -0,0 +1,13 @@
+-- versao is the optimistic lock of every row and, with data_atualizacao, the source of the ETag and Last-Modified
+-- headers. A pessoa's versao is also bumped when one of its enderecos changes, as they are part of its representation.
+ALTER TABLE tb_pessoas
+    ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE tb_pessoas
+    ADD COLUMN data_atualizacao TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+ALTER TABLE tb_enderecos
+    ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE tb_enderecos
+    ADD COLUMN data_atualizacao TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
@@ -0,0 +1,14 @@
+-- Append-only log of the state saved by every write of a pessoa or of one of its enderecos, filled in batches after
+-- commit. dados holds the saved state as JSON.
+CREATE TABLE tb_historico
+(
+    id             UUID                     NOT NULL,
+    pessoa_id      UUID                     NOT NULL,
+    tipo           VARCHAR(20)              NOT NULL,
+    entidade_id    UUID                     NOT NULL,
+    data_alteracao TIMESTAMP WITH TIME ZONE NOT NULL,
+    dados          VARCHAR(1000000)         NOT NULL,
+    CONSTRAINT pk_tb_historico PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_tb_historico_pessoa_id_data_alteracao ON tb_historico (pessoa_id, data_alteracao);
@@ -0,0 +1,376 @@
+package io.github.edsonisaac.psattornatus.reactive;
+
+import io.github.edsonisaac.psattornatus.controllers.PessoaController;
+import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.exceptions.PreconditionFailedException;
+import io.github.edsonisaac.psattornatus.exceptions.StandardError;
+import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
+import io.github.edsonisaac.psattornatus.services.PessoaService;
+import io.github.edsonisaac.psattornatus.utils.CursorUtils;
+import io.github.edsonisaac.psattornatus.utils.EtagUtils;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.github.edsonisaac.psattornatus.utils.ValidationUtils;
+import jakarta.validation.Validator;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * The /pessoas routes of the reactive variant, answering like {@link PessoaController}: the same paths, bodies, status
+ * codes, ETags and error messages. Only JSON is served.
+ */
+public class PessoaHandler {
+
+    private final PessoaR2dbcRepository repository;
+    private final TransactionalOperator transactionalOperator;
+    private final Validator validator;
+
+    /**
+     * Instantiates a new Pessoa handler.
+     *
+     * @param repository            the repository
+     * @param transactionalOperator the transactional operator
+     * @param validator             the validator
+     */
+    public PessoaHandler(PessoaR2dbcRepository repository, TransactionalOperator transactionalOperator, Validator validator) {
+        this.repository = repository;
+        this.transactionalOperator = transactionalOperator;
+        this.validator = validator;
+    }
+
+    /**
+     * The routes, with every error the API reports answered as a {@link StandardError}.
+     *
+     * @return the router function
+     */
+    public RouterFunction<ServerResponse> routes() {
+
+        return RouterFunctions.route()
+                .GET("/pessoas", PessoaHandler::acceptsNdjson, this::findAllAsStream)
+                .GET("/pessoas", this::findAll)
+                .GET("/pessoas/{id}", this::findById)
+                .POST("/pessoas", this::save)
+                .PUT("/pessoas/{id}", this::update)
+                .GET("/pessoas/{id}/enderecos", this::findEnderecos)
+                .POST("/pessoas/{id}/enderecos", this::saveEndereco)
+                .filter((request, next) -> Mono.defer(() -> next.handle(request)).onErrorResume(ex -> error(request, ex)))
+                .build();
+    }
+
+    /**
+     * Find a page of pessoas ordered by id, with the cursor of the next page in the X-Next-Cursor header when the page
+     * is full.
+     *
+     * @param request the request
+     * @return the server response
+     */
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+
+        var cursor = CursorUtils.decode(request.queryParam("cursor").orElse(null));
+        var size = size(request, "100");
+
+        return repository.findPage(cursor, size).collectList().flatMap(pessoas -> {
+
+            var response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+
+            if (pessoas.size() == size) {
+                response.header(PessoaController.NEXT_CURSOR_HEADER, CursorUtils.encode(pessoas.get(pessoas.size() - 1).id()));
+            }
+
+            return response.bodyValue(pessoas);
+        });
+    }
+
+    /**
+     * Stream every pessoa as newline delimited JSON. Each pessoa is written as soon as its rows are read and rows are
+     * only read as fast as the client takes the pessoas, so memory stays bounded whatever the number of pessoas.
+     *
+     * @param request the request
+     * @return the server response
+     */
+    public Mono<ServerResponse> findAllAsStream(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(repository.findAll(size(request, "500")), PessoaDTO.class);
+    }
+
+    /**
+     * Find by id. A conditional request is answered from the versao of the pessoa alone, with 304 when the client
+     * already has it.
+     *
+     * @param request the request
+     * @return the server response
+     */
+    public Mono<ServerResponse> findById(ServerRequest request) {
+
+        var id = id(request);
+        var headers = request.headers().asHttpHeaders();
+
+        if (!headers.getIfNoneMatch().isEmpty() || headers.getIfModifiedSince() != -1) {
+
+            return versao(id).flatMap(versao -> isNotModified(headers, versao) ? notModified(versao)
+                    : repository.findById(id).flatMap(PessoaHandler::pessoa));
+        }
+
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND)))
+                .flatMap(PessoaHandler::pessoa);
+    }
+
+    /**
+     * Save a new pessoa.
+     *
+     * @param request the request
+     * @return the server response
+     */
+    public Mono<ServerResponse> save(ServerRequest request) {
+
+        return request.bodyToMono(Pessoa.class)
+                .switchIfEmpty(Mono.error(() -> new ValidationException(MessageUtils.PESSOA_NULL)))
+                .flatMap(pessoa -> valid(request, pessoa, () -> {
+
+                    var id = UUID.randomUUID();
+                    var agora = Instant.now();
+
+                    return repository.insert(id, pessoa, agora).then(Mono.defer(() -> {
+
+                        pessoa.setId(id);
+                        pessoa.setVersao(0);
+                        pessoa.setDataAtualizacao(agora);
+
+                        return ServerResponse.status(HttpStatus.CREATED).eTag(EtagUtils.of(0)).bodyValue(PessoaDTO.toDTO(pessoa));
+                    }));
+                }));
+    }
+
+    /**
+     * Update the pessoa. With If-Match, the pessoa is only updated while its ETag is one of the given ones, and 412 is
+     * answered otherwise.
+     *
+     * @param request the request
+     * @return the server response
+     */
+    public Mono<ServerResponse> update(ServerRequest request) {
+
+        var id = id(request);
+        var versoes = EtagUtils.versoes(request.headers().asHttpHeaders().getIfMatch());
+
+        return request.bodyToMono(Pessoa.class)
+                .switchIfEmpty(Mono.error(() -> new ValidationException(MessageUtils.PESSOA_NULL)))
+                .flatMap(pessoa -> valid(request, pessoa, () -> {
+
+                    if (!id.equals(pessoa.getId())) {
+                        return Mono.error(new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND));
+                    }
+
+                    var agora = Instant.now();
+                    var atualizadas = versoes != null && versoes.isEmpty() ? Mono.just(0L) : repository.update(pessoa, versoes, agora);
+
+                    return atualizadas
+                            .flatMap(n -> n == 0 ? Mono.<VersaoDTO>error(notUpdated(versoes)) : repository.findVersaoById(id))
+                            .as(transactionalOperator::transactional)
+                            .flatMap(versao -> {
+
+                                pessoa.setVersao(versao.versao());
+                                pessoa.setDataAtualizacao(versao.dataAtualizacao());
+
+                                return ServerResponse.ok().eTag(EtagUtils.of(versao.versao())).bodyValue(PessoaDTO.toDTO(pessoa));
+                            });
+                }));
+    }
+
+    /**
+     * Find the enderecos of the pessoa. The enderecos are part of the pessoa, so they share its versao as validator.
+     *
+     * @param request the request
+     * @return the server response
+     */
+    public Mono<ServerResponse> findEnderecos(ServerRequest request) {
+
+        var id = id(request);
+        var headers = request.headers().asHttpHeaders();
+
+        return versao(id).flatMap(versao -> isNotModified(headers, versao) ? notModified(versao)
+                : repository.findEnderecosByPessoa(id).collectList().flatMap(enderecos -> ServerResponse.ok()
+                        .eTag(EtagUtils.of(versao.versao()))
+                        .lastModified(versao.dataAtualizacao())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(enderecos)));
+    }
+
+    /**
+     * Save a new endereco of the pessoa, incrementing the versao of the pessoa. When it is the principal one, the
+     * previous principal endereco of the pessoa is cleared.
+     *
+     * @param request the request
+     * @return the server response
+     */
+    public Mono<ServerResponse> saveEndereco(ServerRequest request) {
+
+        var id = id(request);
+
+        return request.bodyToMono(Endereco.class)
+                .switchIfEmpty(Mono.error(() -> new ValidationException(MessageUtils.ENDERECO_NULL)))
+                .flatMap(endereco -> valid(request, endereco, () -> {
+
+                    if (endereco.getPessoa() == null || !id.equals(endereco.getPessoa().getId())) {
+                        return Mono.error(new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND));
+                    }
+
+                    var enderecoId = UUID.randomUUID();
+                    var agora = Instant.now();
+
+                    return repository.incrementVersao(id, agora)
+                            .flatMap(n -> n == 0 ? Mono.error(new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND))
+                                    : Boolean.TRUE.equals(endereco.getPrincipal()) ? repository.clearPrincipal(id) : Mono.just(0L))
+                            .then(repository.insertEndereco(enderecoId, endereco, id, agora))
+                            .as(transactionalOperator::transactional)
+                            .then(Mono.defer(() -> {
+
+                                endereco.setId(enderecoId);
+
+                                return ServerResponse.status(HttpStatus.CREATED).bodyValue(EnderecoDTO.toDTO(endereco));
+                            }));
+                }));
+    }
+
+    private Mono<VersaoDTO> versao(UUID id) {
+        return repository.findVersaoById(id).switchIfEmpty(Mono.error(() -> new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND)));
+    }
+
+    private static RuntimeException notUpdated(Collection<Long> versoes) {
+        return versoes != null ? new PreconditionFailedException(MessageUtils.VERSION_MISMATCH) : new ObjectNotFoundException(MessageUtils.PESSOA_NOT_FOUND);
+    }
+
+    /**
+     * Run the handler when the body is valid, or answer every constraint violation as the MVC application does.
+     *
+     * @param request the request
+     * @param body    the body
+     * @param handler the handler
+     * @return the server response
+     */
+    private Mono<ServerResponse> valid(ServerRequest request, Object body, Supplier<Mono<ServerResponse>> handler) {
+
+        var errors = validator.validate(body).stream().map(v -> new StandardError(
+                System.currentTimeMillis(),
+                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                StringUtils.capitalize(v.getPropertyPath().toString()) + " " + v.getMessage() + "!",
+                request.path())).toList();
+
+        return errors.isEmpty() ? handler.get() : ServerResponse.badRequest().bodyValue(errors);
+    }
+
+    private static Mono<ServerResponse> pessoa(PessoaDTO pessoa) {
+
+        return ServerResponse.ok()
+                .eTag(EtagUtils.of(pessoa.versao()))
+                .lastModified(pessoa.dataAtualizacao())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(pessoa);
+    }
+
+    private static boolean isNotModified(HttpHeaders headers, VersaoDTO versao) {
+
+        if (!headers.getIfNoneMatch().isEmpty()) {
+            return EtagUtils.matches(headers.getIfNoneMatch(), EtagUtils.of(versao.versao()));
+        }
+
+        return headers.getIfModifiedSince() != -1 && versao.dataAtualizacao().getEpochSecond() <= headers.getIfModifiedSince() / 1000;
+    }
+
+    private static Mono<ServerResponse> notModified(VersaoDTO versao) {
+        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(EtagUtils.of(versao.versao())).lastModified(versao.dataAtualizacao()).build();
+    }
+
+    /**
+     * Whether the request asks for newline delimited JSON. Unlike {@code RequestPredicates.accept}, a request without
+     * Accept gets the page of pessoas, as with the MVC application.
+     *
+     * @param request the request
+     * @return true when application/x-ndjson is accepted
+     */
+    private static boolean acceptsNdjson(ServerRequest request) {
+        return request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    private static UUID id(ServerRequest request) {
+
+        try {
+            return UUID.fromString(request.pathVariable("id"));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException(ex.getMessage());
+        }
+    }
+
+    private static int size(ServerRequest request, String defaultValue) {
+
+        try {
+            var size = Integer.parseInt(request.queryParam("size").orElse(defaultValue));
+
+            if (size >= 1 && size <= PessoaService.MAX_PAGE_SIZE) {
+                return size;
+            }
+        } catch (NumberFormatException ex) {
+            // reported below
+        }
+
+        throw new ValidationException(MessageUtils.PAGE_SIZE_INVALID);
+    }
+
+    /**
+     * Answer the errors the API reports, as {@code ExceptionHandlerController} does, and let the others through.
+     *
+     * @param request the request
+     * @param ex      the ex
+     * @return the server response
+     */
+    private static Mono<ServerResponse> error(ServerRequest request, Throwable ex) {
+
+        if (ex instanceof ObjectNotFoundException) {
+            return error(request, HttpStatus.NOT_FOUND, ex.getMessage());
+        }
+
+        if (ex instanceof PreconditionFailedException) {
+            return error(request, HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+        }
+
+        if (ex instanceof ValidationException) {
+            return error(request, HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+
+        if (ex instanceof ConcurrencyFailureException) {
+            return error(request, HttpStatus.CONFLICT, MessageUtils.CONCURRENT_UPDATE);
+        }
+
+        if (ex instanceof DataIntegrityViolationException integrity) {
+            return error(request, ValidationUtils.isDuplicatedNome(integrity) ? HttpStatus.BAD_REQUEST : HttpStatus.CONFLICT, ValidationUtils.message(integrity));
+        }
+
+        return Mono.error(ex);
+    }
+
+    private static Mono<ServerResponse> error(ServerRequest request, HttpStatus status, String message) {
+
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(new StandardError(
+                System.currentTimeMillis(), status.value(), status.getReasonPhrase(), message, request.path()));
+    }
+}
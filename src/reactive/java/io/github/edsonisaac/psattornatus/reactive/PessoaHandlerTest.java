@@ -0,0 +1,245 @@
+package io.github.edsonisaac.psattornatus.reactive;
+
+import io.github.edsonisaac.psattornatus.controllers.PessoaController;
+import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.exceptions.StandardError;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The type Pessoa handler test, run with -Preactive against the schema migrated by Flyway.
+ */
+@AutoConfigureWebTestClient
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = ReactiveApplication.class,
+        properties = "spring.config.name=reactive")
+class PessoaHandlerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private PessoaR2dbcRepository repository;
+
+    /**
+     * Should save and return the pessoa with its etag.
+     */
+    @Test
+    @DisplayName("Deve salvar e retornar a pessoa com o seu ETag")
+    public void shouldSaveAndReturnThePessoaWithItsEtag() {
+
+        var pessoa = save(getPessoa());
+
+        assertNotNull(pessoa.id());
+
+        client.get().uri("/pessoas/{id}", pessoa.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(PessoaDTO.class).value(p -> assertEquals(pessoa.nome(), p.nome()));
+
+        client.get().uri("/pessoas/{id}", pessoa.id())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    /**
+     * Should not return pessoa when id not found.
+     */
+    @Test
+    @DisplayName("Não deve retornar a pessoa quando o ID não for encontrado")
+    public void shouldNotReturnPessoaWhenIDNotFound() {
+
+        client.get().uri("/pessoas/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(StandardError.class).value(e -> assertEquals(MessageUtils.PESSOA_NOT_FOUND, e.message()));
+    }
+
+    /**
+     * Should not save pessoa when nome is empty.
+     */
+    @Test
+    @DisplayName("Não deve salvar a pessoa quando o nome estiver vazio")
+    public void shouldNotSavePessoaWhenNomeIsEmpty() {
+
+        var pessoa = getPessoa();
+        pessoa.setNome("");
+
+        client.post().uri("/pessoas")
+                .bodyValue(pessoa)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBodyList(StandardError.class).hasSize(1);
+    }
+
+    /**
+     * Should not save pessoa when nome already exists.
+     */
+    @Test
+    @DisplayName("Não deve salvar a pessoa quando o nome já existir")
+    public void shouldNotSavePessoaWhenNomeAlreadyExists() {
+
+        var pessoa = getPessoa();
+
+        save(pessoa);
+
+        client.post().uri("/pessoas")
+                .bodyValue(pessoa)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(StandardError.class).value(e -> assertEquals(MessageUtils.PESSOA_ALREADY_EXISTS, e.message()));
+    }
+
+    /**
+     * Should update pessoa only when the etag matches.
+     */
+    @Test
+    @DisplayName("Deve atualizar a pessoa somente quando o ETag corresponder")
+    public void shouldUpdatePessoaOnlyWhenTheEtagMatches() {
+
+        var saved = save(getPessoa());
+        var pessoa = getPessoa();
+        pessoa.setId(saved.id());
+
+        client.put().uri("/pessoas/{id}", saved.id())
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .bodyValue(pessoa)
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody(StandardError.class).value(e -> assertEquals(MessageUtils.VERSION_MISMATCH, e.message()));
+
+        client.put().uri("/pessoas/{id}", saved.id())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(pessoa)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody(PessoaDTO.class).value(p -> assertEquals(pessoa.getNome(), p.nome()));
+    }
+
+    /**
+     * Should return the enderecos with the etag of the pessoa.
+     */
+    @Test
+    @DisplayName("Deve retornar os endereços com o ETag da pessoa")
+    public void shouldReturnTheEnderecosWithTheEtagOfThePessoa() {
+
+        var pessoa = save(getPessoa());
+
+        repository.insertEndereco(UUID.randomUUID(), getEndereco(), pessoa.id(), Instant.now()).block();
+
+        client.get().uri("/pessoas/{id}/enderecos", pessoa.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBodyList(EnderecoDTO.class).hasSize(1);
+
+        client.get().uri("/pessoas/{id}/enderecos", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    /**
+     * Should return the pessoas by pages and as a stream.
+     */
+    @Test
+    @DisplayName("Deve retornar as pessoas por páginas e em NDJSON")
+    public void shouldReturnThePessoasByPagesAndAsAStream() {
+
+        for (int i = 0; i < 3; i++) {
+            save(getPessoa());
+        }
+
+        var primeira = client.get().uri("/pessoas?size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(PessoaController.NEXT_CURSOR_HEADER)
+                .expectBodyList(PessoaDTO.class).hasSize(2)
+                .returnResult();
+
+        var cursor = primeira.getResponseHeaders().getFirst(PessoaController.NEXT_CURSOR_HEADER);
+
+        client.get().uri("/pessoas?size=2&cursor={cursor}", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PessoaDTO.class).value(pessoas -> assertTrue(pessoas.stream()
+                        .noneMatch(p -> primeira.getResponseBody().stream().anyMatch(q -> q.id().equals(p.id())))));
+
+        var todas = client.get().uri("/pessoas?size=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PessoaDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(todas);
+        assertTrue(todas.size() >= 3);
+        assertEquals(todas.stream().map(PessoaDTO::id).distinct().count(), todas.size());
+    }
+
+    /**
+     * Should not return pessoas when size is invalid.
+     */
+    @Test
+    @DisplayName("Não deve retornar pessoas quando o tamanho da página for inválido")
+    public void shouldNotReturnPessoasWhenSizeIsInvalid() {
+
+        client.get().uri("/pessoas?size=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(StandardError.class).value(e -> assertEquals(MessageUtils.PAGE_SIZE_INVALID, e.message()));
+    }
+
+    private PessoaDTO save(Pessoa pessoa) {
+
+        return client.post().uri("/pessoas")
+                .bodyValue(pessoa)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(PessoaDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private Pessoa getPessoa() {
+
+        return Pessoa.builder()
+                .nome("Pessoa " + UUID.randomUUID())
+                .dataNascimento(LocalDate.now())
+                .build();
+    }
+
+    private Endereco getEndereco() {
+
+        return Endereco.builder()
+                .logradouro("Avenida Primero de Janeiro")
+                .numero("1")
+                .cidade("Irecê")
+                .cep("44900000")
+                .principal(true)
+                .build();
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.edsonisaac.psattornatus.reactive;
+
+import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaEnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.utils.NomeUtils;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The pessoas and enderecos of the reactive variant, read and written with plain SQL through R2DBC. Pessoas are read
+ * joined with their enderecos, in one query, and grouped as the rows arrive.
+ */
+public class PessoaR2dbcRepository {
+
+    private static final String COLUMNS = """
+            SELECT p.id, p.nome, p.data_nascimento, p.versao, p.data_atualizacao,
+                   e.id AS endereco_id, e.logradouro, e.numero, e.cidade, e.cep, e.principal
+            """;
+
+    private static final String SELECT_PESSOAS = COLUMNS + """
+            FROM tb_pessoas p LEFT JOIN tb_enderecos e ON e.pessoa_id = p.id
+            """;
+
+    private final DatabaseClient client;
+
+    /**
+     * Instantiates a new Pessoa r2dbc repository.
+     *
+     * @param client the client
+     */
+    public PessoaR2dbcRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Find every pessoa ordered by id, with their enderecos. The rows are fetched as they are consumed, so a slow
+     * consumer holds back the query instead of the pessoas piling up in memory.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the flux
+     */
+    public Flux<PessoaDTO> findAll(int fetchSize) {
+
+        return group(client.sql(SELECT_PESSOAS + "ORDER BY p.id")
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .map(PessoaR2dbcRepository::pessoaEndereco)
+                .all());
+    }
+
+    /**
+     * Find a page of pessoas ordered by id, with their enderecos.
+     *
+     * @param cursor the last id of the previous page, or null for the first page
+     * @param size   the page size
+     * @return the flux
+     */
+    public Flux<PessoaDTO> findPage(UUID cursor, int size) {
+
+        var spec = client.sql(COLUMNS + """
+                        FROM (SELECT id FROM tb_pessoas %sORDER BY id LIMIT :size) ids
+                        JOIN tb_pessoas p ON p.id = ids.id LEFT JOIN tb_enderecos e ON e.pessoa_id = p.id
+                        ORDER BY p.id""".formatted(cursor == null ? "" : "WHERE id > :cursor "))
+                .bind("size", size);
+
+        return group((cursor == null ? spec : spec.bind("cursor", cursor)).map(PessoaR2dbcRepository::pessoaEndereco).all());
+    }
+
+    /**
+     * Find by id pessoa dto, with its enderecos.
+     *
+     * @param id the id
+     * @return the mono, empty when there is no such pessoa
+     */
+    public Mono<PessoaDTO> findById(UUID id) {
+        return group(client.sql(SELECT_PESSOAS + "WHERE p.id = :id").bind("id", id).map(PessoaR2dbcRepository::pessoaEndereco).all()).next();
+    }
+
+    /**
+     * Find the versao and data atualizacao of the pessoa.
+     *
+     * @param id the id
+     * @return the mono, empty when there is no such pessoa
+     */
+    public Mono<VersaoDTO> findVersaoById(UUID id) {
+
+        return client.sql("SELECT versao, data_atualizacao FROM tb_pessoas WHERE id = :id")
+                .bind("id", id)
+                .map(row -> new VersaoDTO(row.get("versao", Long.class), instant(row, "data_atualizacao")))
+                .one();
+    }
+
+    /**
+     * Find the enderecos of the pessoa.
+     *
+     * @param pessoaId the pessoa id
+     * @return the flux
+     */
+    public Flux<EnderecoDTO> findEnderecosByPessoa(UUID pessoaId) {
+
+        return client.sql("SELECT id, logradouro, numero, cidade, cep, principal FROM tb_enderecos WHERE pessoa_id = :pessoaId")
+                .bind("pessoaId", pessoaId)
+                .map(row -> new EnderecoDTO(row.get("id", UUID.class), row.get("logradouro", String.class), row.get("numero", String.class),
+                        row.get("cidade", String.class), row.get("cep", String.class), row.get("principal", Boolean.class)))
+                .all();
+    }
+
+    /**
+     * Insert a new pessoa, at versao 0.
+     *
+     * @param id              the id
+     * @param pessoa          the pessoa
+     * @param dataAtualizacao the data atualizacao
+     * @return the mono
+     */
+    public Mono<Void> insert(UUID id, Pessoa pessoa, Instant dataAtualizacao) {
+
+        return client.sql("""
+                        INSERT INTO tb_pessoas (id, nome, nome_normalizado, data_nascimento, versao, data_atualizacao)
+                        VALUES (:id, :nome, :nomeNormalizado, :dataNascimento, 0, :dataAtualizacao)
+                        """)
+                .bind("id", id)
+                .bind("nome", pessoa.getNome())
+                .bind("nomeNormalizado", NomeUtils.normalize(pessoa.getNome()))
+                .bind("dataNascimento", pessoa.getDataNascimento())
+                .bind("dataAtualizacao", offsetDateTime(dataAtualizacao))
+                .then();
+    }
+
+    /**
+     * Overwrite the nome and data de nascimento of the pessoa, incrementing its versao, only when its current versao
+     * is one of the given versoes.
+     *
+     * @param pessoa          the pessoa
+     * @param versoes         the expected versoes, or null to overwrite any versao
+     * @param dataAtualizacao the data atualizacao
+     * @return the number of pessoas updated
+     */
+    public Mono<Long> update(Pessoa pessoa, Collection<Long> versoes, Instant dataAtualizacao) {
+
+        var spec = client.sql("""
+                        UPDATE tb_pessoas
+                        SET nome = :nome, nome_normalizado = :nomeNormalizado, data_nascimento = :dataNascimento,
+                            versao = versao + 1, data_atualizacao = :dataAtualizacao
+                        WHERE id = :id""" + (versoes != null ? " AND versao IN (:versoes)" : ""))
+                .bind("id", pessoa.getId())
+                .bind("nome", pessoa.getNome())
+                .bind("nomeNormalizado", NomeUtils.normalize(pessoa.getNome()))
+                .bind("dataNascimento", pessoa.getDataNascimento())
+                .bind("dataAtualizacao", offsetDateTime(dataAtualizacao));
+
+        return (versoes != null ? spec.bind("versoes", versoes) : spec).fetch().rowsUpdated();
+    }
+
+    /**
+     * Increment the versao of the pessoa, as its enderecos are part of it. This also locks its row until the
+     * transaction ends.
+     *
+     * @param id              the id
+     * @param dataAtualizacao the data atualizacao
+     * @return the number of pessoas updated
+     */
+    public Mono<Long> incrementVersao(UUID id, Instant dataAtualizacao) {
+
+        return client.sql("UPDATE tb_pessoas SET versao = versao + 1, data_atualizacao = :dataAtualizacao WHERE id = :id")
+                .bind("id", id)
+                .bind("dataAtualizacao", offsetDateTime(dataAtualizacao))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Clear the principal endereco of the pessoa.
+     *
+     * @param pessoaId the pessoa id
+     * @return the number of enderecos updated
+     */
+    public Mono<Long> clearPrincipal(UUID pessoaId) {
+
+        return client.sql("UPDATE tb_enderecos SET principal = FALSE, versao = versao + 1 WHERE pessoa_id = :pessoaId AND principal = TRUE")
+                .bind("pessoaId", pessoaId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Insert a new endereco of the pessoa, at versao 0.
+     *
+     * @param id              the id
+     * @param endereco        the endereco
+     * @param pessoaId        the pessoa id
+     * @param dataAtualizacao the data atualizacao
+     * @return the mono
+     */
+    public Mono<Void> insertEndereco(UUID id, Endereco endereco, UUID pessoaId, Instant dataAtualizacao) {
+
+        return client.sql("""
+                        INSERT INTO tb_enderecos (id, logradouro, numero, cidade, cep, principal, pessoa_id, versao, data_atualizacao)
+                        VALUES (:id, :logradouro, :numero, :cidade, :cep, :principal, :pessoaId, 0, :dataAtualizacao)
+                        """)
+                .bind("id", id)
+                .bind("logradouro", endereco.getLogradouro())
+                .bind("numero", endereco.getNumero())
+                .bind("cidade", endereco.getCidade())
+                .bind("cep", endereco.getCep())
+                .bind("principal", endereco.getPrincipal())
+                .bind("pessoaId", pessoaId)
+                .bind("dataAtualizacao", offsetDateTime(dataAtualizacao))
+                .then();
+    }
+
+    /**
+     * Group the rows of each pessoa, which come one after the other, as soon as the rows of the next one start.
+     *
+     * @param rows the rows ordered by pessoa
+     * @return the flux
+     */
+    private static Flux<PessoaDTO> group(Flux<PessoaEnderecoDTO> rows) {
+        return rows.bufferUntilChanged(PessoaEnderecoDTO::id).map(pessoa -> PessoaDTO.toDTOs(pessoa).get(0));
+    }
+
+    private static PessoaEnderecoDTO pessoaEndereco(Readable row) {
+
+        return new PessoaEnderecoDTO(
+                row.get("id", UUID.class),
+                row.get("nome", String.class),
+                row.get("data_nascimento", LocalDate.class),
+                row.get("versao", Long.class),
+                instant(row, "data_atualizacao"),
+                row.get("endereco_id", UUID.class),
+                row.get("logradouro", String.class),
+                row.get("numero", String.class),
+                row.get("cidade", String.class),
+                row.get("cep", String.class),
+                row.get("principal", Boolean.class));
+    }
+
+    private static Instant instant(Readable row, String column) {
+        var value = row.get(column, OffsetDateTime.class);
+        return value != null ? value.toInstant() : null;
+    }
+
+    private static OffsetDateTime offsetDateTime(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
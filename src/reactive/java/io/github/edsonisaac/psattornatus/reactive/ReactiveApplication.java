@@ -0,0 +1,95 @@
+package io.github.edsonisaac.psattornatus.reactive;
+
+import jakarta.validation.Validator;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * The type Reactive application, a non-blocking variant of the pessoas API on WebFlux and R2DBC, configured by
+ * reactive.yml and built with -Preactive.
+ * <p>
+ * It is not a {@code @SpringBootApplication}: its package is under the component scan of the MVC application, so
+ * neither this class nor its beans carry stereotypes, and the MVC configuration is never scanned here. Tomcat is on
+ * the classpath for the MVC application, so the Netty server is declared here rather than left to auto-configuration.
+ */
+@EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+public class ReactiveApplication {
+
+    /**
+     * The entry point of application.
+     *
+     * @param args the input arguments
+     */
+    public static void main(String[] args) {
+        run(args);
+    }
+
+    /**
+     * Run the reactive application.
+     *
+     * @param args the input arguments
+     * @return the application context
+     */
+    public static ConfigurableApplicationContext run(String... args) {
+
+        return new SpringApplicationBuilder(ReactiveApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=reactive")
+                .run(args);
+    }
+
+    /**
+     * Netty reactive web server factory, serving every connection from the event loop threads.
+     *
+     * @return the netty reactive web server factory
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Pessoa r2dbc repository.
+     *
+     * @param client the client
+     * @return the pessoa r2dbc repository
+     */
+    @Bean
+    public PessoaR2dbcRepository pessoaR2dbcRepository(DatabaseClient client) {
+        return new PessoaR2dbcRepository(client);
+    }
+
+    /**
+     * Pessoa handler.
+     *
+     * @param repository            the repository
+     * @param transactionalOperator the transactional operator
+     * @param validator             the validator
+     * @return the pessoa handler
+     */
+    @Bean
+    public PessoaHandler pessoaHandler(PessoaR2dbcRepository repository, TransactionalOperator transactionalOperator, Validator validator) {
+        return new PessoaHandler(repository, transactionalOperator, validator);
+    }
+
+    /**
+     * Pessoa routes.
+     *
+     * @param handler the handler
+     * @return the router function
+     */
+    @Bean
+    public RouterFunction<ServerResponse> pessoaRoutes(PessoaHandler handler) {
+        return handler.routes();
+    }
+}
@@ -0,0 +1,42 @@
+package db.migration;
+
+import io.github.edsonisaac.psattornatus.utils.NomeUtils;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The type V3 normalize nome test.
+ */
+class V3__normalize_nomeTest {
+
+    /**
+     * Should backfill the nomes as the application normalizes them.
+     */
+    @Test
+    @DisplayName("Deve preencher os nomes normalizados como a aplicação os normaliza")
+    public void shouldBackfillTheNomesAsTheApplicationNormalizesThem() {
+
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        var nomes = List.of(" José da Silva ", "Ñandú Peña", "Jürgen Öztürk", "Łukasz Wałęsa", "Zoë Brontë");
+
+        Flyway.configure().dataSource(dataSource).target("2").load().migrate();
+
+        nomes.forEach(nome -> jdbcTemplate.update("INSERT INTO tb_pessoas (id, nome, data_nascimento) VALUES (?, ?, CURRENT_DATE)",
+                UUID.randomUUID(), nome));
+
+        Flyway.configure().dataSource(dataSource).target("3").load().migrate();
+
+        for (var nome : nomes) {
+            Assertions.assertEquals(NomeUtils.normalize(nome),
+                    jdbcTemplate.queryForObject("SELECT nome_normalizado FROM tb_pessoas WHERE nome = ?", String.class, nome));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import io.github.edsonisaac.psattornatus.filters.ConcurrencyLimitFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+
+/**
+ * The type Concurrency config test.
+ */
+@SpringBootTest(properties = {"spring.threads.virtual.enabled=true", "spring.datasource.hikari.maximum-pool-size=7",
+        "spring.datasource.hikari.minimum-idle=7"})
+class ConcurrencyConfigTest {
+
+    @Autowired
+    private FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter;
+
+    /**
+     * Should admit as many requests as pooled connections by default.
+     */
+    @Test
+    @DisplayName("Deve admitir por padrão tantas requisições quanto conexões no pool")
+    public void shouldAdmitAsManyRequestsAsPooledConnectionsByDefault() {
+        Assertions.assertEquals(7, concurrencyLimitFilter.getFilter().getMaxRequests());
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.github.edsonisaac.psattornatus.services.EnderecoService;
+import io.github.edsonisaac.psattornatus.services.PessoaService;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The type Data source config test.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.data-source-properties.sslpassword=secreto")
+@ActiveProfiles("postgres")
+class DataSourceConfigTest {
+
+    @Autowired
+    private DataSourceConfig dataSourceConfig;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    /**
+     * Clean up.
+     */
+    @AfterEach
+    public void cleanUp() {
+        enderecoRepository.deleteAllInBatch();
+        pessoaRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Should report the effective settings.
+     */
+    @Test
+    @DisplayName("Deve informar as configurações efetivas do pool e dos lotes")
+    public void shouldReportTheEffectiveSettings() {
+
+        var settings = dataSourceConfig.settings();
+
+        Assertions.assertTrue(settings.get("pool.url").toString().contains("MODE=PostgreSQL"));
+        Assertions.assertEquals(10, settings.get("pool.maximumPoolSize"));
+        Assertions.assertEquals(10, settings.get("pool.minimumIdle"));
+        Assertions.assertEquals("256", settings.get("pool.preparedStatementCacheQueries"));
+        Assertions.assertEquals("******", settings.get("pool.sslpassword"));
+        Assertions.assertFalse(settings.toString().contains("secreto"));
+        Assertions.assertEquals("50", settings.get(AvailableSettings.STATEMENT_BATCH_SIZE));
+        Assertions.assertEquals("true", settings.get(AvailableSettings.ORDER_INSERTS));
+        Assertions.assertEquals("500", settings.get(AvailableSettings.STATEMENT_FETCH_SIZE));
+    }
+
+    /**
+     * Should run on the postgres compatibility mode.
+     */
+    @Test
+    @DisplayName("Deve funcionar no modo de compatibilidade com o PostgreSQL")
+    public void shouldRunOnThePostgresCompatibilityMode() {
+
+        var pessoa = pessoaService.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+
+        enderecoService.save(Endereco.builder()
+                .logradouro("Avenida Primero de Janeiro")
+                .numero("1")
+                .cidade("Irecê")
+                .cep("44900000")
+                .principal(true)
+                .pessoa(pessoa)
+                .build());
+
+        Assertions.assertEquals(1, enderecoService.findByPessoa(pessoa.getId()).enderecos().size());
+        Assertions.assertEquals(pessoa.getVersao() + 1, pessoaService.findVersaoById(pessoa.getId()).versao());
+    }
+}
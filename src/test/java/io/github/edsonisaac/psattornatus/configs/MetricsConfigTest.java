@@ -0,0 +1,100 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.filters.SqlStatementMetricsFilter;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.github.edsonisaac.psattornatus.services.PessoaService;
+import io.github.edsonisaac.psattornatus.utils.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The type Metrics config test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    /**
+     * Clean up.
+     */
+    @AfterEach
+    public void cleanUp() {
+        pessoaRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Should count sql statements on the current thread.
+     */
+    @Test
+    @DisplayName("Deve contar as consultas SQL da thread atual")
+    public void shouldCountSqlStatementsOnTheCurrentThread() {
+
+        pessoaRepository.count();
+
+        SqlStatementCounter.start();
+        pessoaRepository.count();
+        pessoaRepository.count();
+
+        Assertions.assertEquals(2, SqlStatementCounter.stop());
+        Assertions.assertEquals(0, SqlStatementCounter.count());
+    }
+
+    /**
+     * Should record request, service, repository and sql metrics.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve registrar métricas de requisição, serviço, repositório e SQL")
+    public void shouldRecordRequestServiceRepositoryAndSqlMetrics() throws Exception {
+
+        var pessoa = pessoaService.save(Pessoa.builder()
+                .nome("Pessoa " + System.nanoTime())
+                .dataNascimento(LocalDate.now())
+                .build());
+
+        mockMvc.perform(get("/pessoas/{id}", pessoa.getId())).andExpect(status().isOk());
+
+        var sql = meterRegistry.get(SqlStatementMetricsFilter.METRIC).tag("uri", "/pessoas/{id}").summary();
+
+        Assertions.assertEquals(1, sql.count());
+        Assertions.assertTrue(sql.totalAmount() > 0);
+        Assertions.assertEquals(1, meterRegistry.get(PessoaService.METRIC).tag("method", "validatePessoa").timer().count());
+
+        var prometheus = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(prometheus.contains("http_server_requests_seconds_bucket"));
+        Assertions.assertTrue(prometheus.contains("http_server_requests_sql_statements_bucket"));
+        Assertions.assertTrue(prometheus.contains("app_service_seconds_count{class=\"io.github.edsonisaac.psattornatus.services.PessoaService\",exception=\"none\",method=\"findDTOById\""));
+        Assertions.assertTrue(prometheus.contains("spring_data_repository_invocations_seconds_bucket"));
+    }
+}
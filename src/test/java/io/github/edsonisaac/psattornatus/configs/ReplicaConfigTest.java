@@ -0,0 +1,205 @@
+package io.github.edsonisaac.psattornatus.configs;
+
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.github.edsonisaac.psattornatus.services.EnderecoService;
+import io.github.edsonisaac.psattornatus.services.PessoaService;
+import io.github.edsonisaac.psattornatus.utils.ReplicaRoutingDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * The type Replica config test.
+ * <p>
+ * The replicas are two other in-memory H2 databases with the same schema, each holding one pessoa only it has, so
+ * the pessoas read tell where a read ran.
+ */
+@SpringBootTest(properties = "app.datasource.consistency-window=10m")
+class ReplicaConfigTest {
+
+    private static final List<String> REPLICAS = List.of(
+            "jdbc:h2:mem:replica0;DB_CLOSE_DELAY=-1",
+            "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1");
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    private final List<UUID> replicaIds = new ArrayList<>();
+
+    /**
+     * Migrate the replicas before the application starts reading from them.
+     *
+     * @param registry the registry
+     */
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry registry) {
+
+        REPLICAS.forEach(url -> Flyway.configure().dataSource(url, "sa", "password").load().migrate());
+
+        registry.add("app.datasource.replicas", () -> String.join(",", REPLICAS));
+    }
+
+    /**
+     * Sets up.
+     */
+    @BeforeEach
+    public void setUp() {
+
+        replicaIds.clear();
+
+        for (int i = 0; i < REPLICAS.size(); i++) {
+
+            var id = UUID.randomUUID();
+
+            replica(i).update("INSERT INTO tb_pessoas (id, nome, nome_normalizado, data_nascimento) VALUES (?, ?, ?, ?)",
+                    id, "Replica " + i, "replica " + i, LocalDate.now());
+            replicaIds.add(id);
+        }
+
+        ReplicaRoutingDataSource.clear();
+    }
+
+    /**
+     * Clean up.
+     */
+    @AfterEach
+    public void cleanUp() {
+
+        for (int i = 0; i < REPLICAS.size(); i++) {
+            replica(i).update("DELETE FROM tb_pessoas");
+        }
+
+        enderecoRepository.deleteAllInBatch();
+        pessoaRepository.deleteAllInBatch();
+        ReplicaRoutingDataSource.clear();
+    }
+
+    /**
+     * Should spread reads across the replicas.
+     */
+    @Test
+    @DisplayName("Deve distribuir as leituras entre as réplicas")
+    public void shouldSpreadReadsAcrossTheReplicas() {
+
+        var primeira = nomes();
+        var segunda = nomes();
+
+        Assertions.assertEquals(1, primeira.size());
+        Assertions.assertEquals(1, segunda.size());
+        Assertions.assertNotEquals(primeira, segunda);
+        Assertions.assertTrue(List.of(List.of("Replica 0"), List.of("Replica 1")).containsAll(List.of(primeira, segunda)));
+    }
+
+    /**
+     * Should read its own writes from the primary.
+     */
+    @Test
+    @DisplayName("Deve ler as próprias escritas do primário")
+    public void shouldReadItsOwnWritesFromThePrimary() {
+
+        var pessoa = pessoaService.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+
+        Assertions.assertEquals(List.of(pessoa.getNome()), nomes());
+
+        for (int i = 0; i < REPLICAS.size(); i++) {
+            Assertions.assertEquals(1, replica(i).queryForObject("SELECT COUNT(*) FROM tb_pessoas", Integer.class));
+        }
+
+        ReplicaRoutingDataSource.clear();
+
+        Assertions.assertFalse(nomes().contains(pessoa.getNome()));
+    }
+
+    /**
+     * Should look the pessoas up by id on a replica.
+     */
+    @Test
+    @DisplayName("Deve buscar as pessoas pelo id em uma réplica")
+    public void shouldLookThePessoasUpByIdOnAReplica() {
+
+        var pessoas = pessoaService.findAllById(replicaIds);
+
+        Assertions.assertEquals(1, pessoas.size());
+        Assertions.assertTrue(pessoas.get(0).nome().startsWith("Replica "));
+    }
+
+    /**
+     * Should read the enderecos of the pessoa on a replica.
+     */
+    @Test
+    @DisplayName("Deve ler os endereços da pessoa em uma réplica")
+    public void shouldReadTheEnderecosOfThePessoaOnAReplica() {
+
+        // only the replica holding the pessoa finds it, and the reads go to each replica in turn
+        for (var id : replicaIds) {
+            Assertions.assertTrue(IntStream.range(0, REPLICAS.size()).anyMatch(i -> encontrada(id)));
+        }
+    }
+
+    /**
+     * Should look the versao of the pessoa up on a replica.
+     */
+    @Test
+    @DisplayName("Deve buscar a versão da pessoa em uma réplica")
+    public void shouldLookTheVersaoOfThePessoaUpOnAReplica() {
+
+        // only the replica holding the pessoa finds it, and the reads go to each replica in turn
+        for (var id : replicaIds) {
+            Assertions.assertTrue(IntStream.range(0, REPLICAS.size()).anyMatch(i -> versaoEncontrada(id)));
+        }
+    }
+
+    private boolean versaoEncontrada(UUID pessoaId) {
+
+        try {
+            return pessoaService.findVersaoById(pessoaId).versao() == 0;
+        } catch (ObjectNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private boolean encontrada(UUID pessoaId) {
+
+        try {
+            return enderecoService.findByPessoa(pessoaId).enderecos().isEmpty();
+        } catch (ObjectNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private List<String> nomes() {
+        return pessoaService.findAll(null, 10).stream().map(PessoaDTO::nome).toList();
+    }
+
+    private static JdbcTemplate replica(int index) {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICAS.get(index), "sa", "password"));
+    }
+}
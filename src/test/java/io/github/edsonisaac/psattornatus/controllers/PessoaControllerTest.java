@@ -2,34 +2,71 @@ package io.github.edsonisaac.psattornatus.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.github.edsonisaac.psattornatus.PsAttornatusApplication;
+import io.github.edsonisaac.psattornatus.configs.CborConfig;
+import io.github.edsonisaac.psattornatus.dtos.EnderecoDTO;
+import io.github.edsonisaac.psattornatus.dtos.EnderecosDTO;
+import io.github.edsonisaac.psattornatus.dtos.HistoricoDTO;
+import io.github.edsonisaac.psattornatus.dtos.ImportacaoDTO;
+import io.github.edsonisaac.psattornatus.dtos.ImportacaoLinhaDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.dtos.PessoaFiltroDTO;
+import io.github.edsonisaac.psattornatus.dtos.VersaoDTO;
 import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Historico;
 import io.github.edsonisaac.psattornatus.entities.Pessoa;
 import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.exceptions.PreconditionFailedException;
+import io.github.edsonisaac.psattornatus.filters.SqlStatementMetricsFilter;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
 import io.github.edsonisaac.psattornatus.services.EnderecoService;
+import io.github.edsonisaac.psattornatus.services.HistoricoService;
+import io.github.edsonisaac.psattornatus.services.PessoaSearchIndex;
+import io.github.edsonisaac.psattornatus.services.PessoaSearchService;
 import io.github.edsonisaac.psattornatus.services.PessoaService;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.NestedTestConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.ByteBuffer;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * The type Pessoa controller test.
@@ -49,6 +86,12 @@ class PessoaControllerTest {
     @MockBean
     private EnderecoService enderecoService;
 
+    @MockBean
+    private PessoaSearchService pessoaSearchService;
+
+    @MockBean
+    private HistoricoService historicoService;
+
     @Autowired
     private MockMvc mvc;
 
@@ -72,11 +115,12 @@ class PessoaControllerTest {
 
         var pessoa = getPessoa();
 
-        when(pessoaService.findAll()).thenReturn(List.of(pessoa));
+        when(pessoaService.findAll(any(), anyInt())).thenReturn(List.of(PessoaDTO.toDTO(pessoa)));
 
         var result = this.mvc.perform(get("/pessoas"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(PessoaController.NEXT_CURSOR_HEADER))
                 .andDo(print())
                 .andReturn();
 
@@ -86,6 +130,106 @@ class PessoaControllerTest {
         Assertions.assertEquals(1, pessoas.size());
     }
 
+    /**
+     * Should return the next cursor when the page is full.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar o cursor da próxima página quando a página estiver cheia")
+    public void shouldReturnTheNextCursorWhenThePageIsFull() throws Exception {
+
+        var pessoa = getPessoa();
+
+        when(pessoaService.findAll(any(), anyInt())).thenReturn(List.of(PessoaDTO.toDTO(pessoa)));
+
+        var result = this.mvc.perform(get("/pessoas").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(PessoaController.NEXT_CURSOR_HEADER))
+                .andDo(print())
+                .andReturn();
+
+        var cursor = result.getResponse().getHeader(PessoaController.NEXT_CURSOR_HEADER);
+
+        this.mvc.perform(get("/pessoas").param("cursor", cursor).param("size", "1"))
+                .andExpect(status().isOk());
+
+        verify(pessoaService).findAll(pessoa.getId(), 1);
+    }
+
+    /**
+     * Should not return pessoas when cursor is invalid.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Não deve retornar pessoas quando o cursor é inválido")
+    public void shouldNotReturnPessoasWhenCursorIsInvalid() throws Exception {
+
+        this.mvc.perform(get("/pessoas").param("cursor", "???"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andDo(print());
+    }
+
+    /**
+     * Should stream all pessoas as ndjson.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve transmitir todas as pessoas em NDJSON")
+    public void shouldStreamAllPessoasAsNdjson() throws Exception {
+
+        doAnswer(invocation -> {
+            Consumer<PessoaDTO> consumer = invocation.getArgument(1);
+            consumer.accept(PessoaDTO.toDTO(getPessoa()));
+            consumer.accept(PessoaDTO.toDTO(getPessoa()));
+            return null;
+        }).when(pessoaService).forEach(anyInt(), any());
+
+        var result = this.mvc.perform(get("/pessoas").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var response = this.mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andDo(print())
+                .andReturn();
+
+        Assertions.assertEquals(2, response.getResponse().getContentAsString().lines().count());
+    }
+
+    /**
+     * Should search pessoas.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve pesquisar pessoas")
+    public void shouldSearchPessoas() throws Exception {
+
+        var pessoa = getPessoa();
+        var filtro = new PessoaFiltroDTO("jose", "Irecê", "449", LocalDate.of(1980, 1, 1), null);
+
+        when(pessoaSearchService.search(filtro, 1, 10)).thenReturn(new PessoaSearchIndex.Resultado(11, List.of(pessoa.getId())));
+        when(pessoaService.findAllById(List.of(pessoa.getId()))).thenReturn(List.of(PessoaDTO.toDTO(pessoa)));
+
+        this.mvc.perform(
+                        get("/pessoas/search")
+                                .param("nome", "jose")
+                                .param("cidade", "Irecê")
+                                .param("cep", "449")
+                                .param("nascimentoDe", "1980-01-01")
+                                .param("page", "1")
+                                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PessoaController.TOTAL_COUNT_HEADER, "11"))
+                .andExpect(jsonPath("$[0].id").value(pessoa.getId().toString()))
+                .andDo(print());
+    }
+
     /**
      * Should return a pessoa.
      *
@@ -97,13 +241,178 @@ class PessoaControllerTest {
 
         var pessoa = getPessoa();
 
-        when(pessoaService.findById(any())).thenReturn(pessoa);
+        when(pessoaService.findDTOById(any())).thenReturn(PessoaDTO.toDTO(pessoa));
 
         this.mvc.perform(
                         get("/pessoas/" + pessoa.getId()))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.versao").doesNotExist())
+                .andDo(print());
+    }
+
+    /**
+     * Should return many pessoas by id.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar várias pessoas pelo id com os ids não encontrados")
+    public void shouldReturnManyPessoasById() throws Exception {
+
+        var pessoa = getPessoa();
+        var desconhecido = UUID.randomUUID();
+
+        when(pessoaService.findAllById(List.of(pessoa.getId(), desconhecido))).thenReturn(List.of(PessoaDTO.toDTO(pessoa)));
+
+        this.mvc.perform(
+                        post("/pessoas/batch-get")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(this.mapper.writeValueAsString(List.of(pessoa.getId(), desconhecido, pessoa.getId()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pessoas.length()").value(1))
+                .andExpect(jsonPath("$.pessoas[0].id").value(pessoa.getId().toString()))
+                .andExpect(jsonPath("$.naoEncontradas").value(desconhecido.toString()))
+                .andDo(print());
+    }
+
+    /**
+     * Should return a pessoa in cbor.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar uma pessoa em CBOR com ETag próprio")
+    public void shouldReturnAPessoaInCbor() throws Exception {
+
+        var pessoa = getPessoa();
+        pessoa.setEnderecos(Set.of(getEndereco()));
+
+        when(pessoaService.findDTOById(any())).thenReturn(PessoaDTO.toDTO(pessoa));
+        when(pessoaService.findVersaoById(pessoa.getId())).thenReturn(new VersaoDTO(1, pessoa.getDataAtualizacao()));
+
+        var result = this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId()).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn();
+
+        var body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+
+        Assertions.assertArrayEquals(bytes(pessoa.getId()), body.get("id").binaryValue());
+        Assertions.assertEquals(pessoa.getDataNascimento().toEpochDay(), body.get("dataNascimento").longValue());
+        Assertions.assertEquals(pessoa.getNome(), body.get("nome").textValue());
+        Assertions.assertEquals(1, body.get("enderecos").size());
+        Assertions.assertTrue(result.getResponse().getContentAsByteArray().length < mapper.writeValueAsBytes(PessoaDTO.toDTO(pessoa)).length);
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId()).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isOk());
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId()).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, "\"1-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-cbor\""));
+    }
+
+    /**
+     * Should negotiate the representation and its etag by quality.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve negociar a representação e o seu ETag pela qualidade do Accept")
+    public void shouldNegotiateTheRepresentationAndItsEtagByQuality() throws Exception {
+
+        var pessoa = getPessoa();
+
+        when(pessoaService.findDTOById(any())).thenReturn(PessoaDTO.toDTO(pessoa));
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId()).header(HttpHeaders.ACCEPT, "application/json;q=0.1, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-cbor\""));
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId()).header(HttpHeaders.ACCEPT, "application/cbor;q=0.5, */*;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    /**
+     * Should return not modified when the etag matches.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar 304 sem carregar a pessoa quando o ETag não mudou")
+    public void shouldReturnNotModifiedWhenTheETagMatches() throws Exception {
+
+        var pessoa = getPessoa();
+
+        when(pessoaService.findVersaoById(pessoa.getId())).thenReturn(new VersaoDTO(1, pessoa.getDataAtualizacao()));
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId()).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\", \"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(content().string(""))
+                .andDo(print());
+
+        verify(pessoaService, never()).findDTOById(any());
+    }
+
+    /**
+     * Should return the pessoa when the etag changed.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar a pessoa quando o ETag mudou")
+    public void shouldReturnThePessoaWhenTheETagChanged() throws Exception {
+
+        var pessoa = getPessoa();
+        pessoa.setVersao(2);
+
+        when(pessoaService.findVersaoById(pessoa.getId())).thenReturn(new VersaoDTO(2, pessoa.getDataAtualizacao()));
+        when(pessoaService.findDTOById(pessoa.getId())).thenReturn(PessoaDTO.toDTO(pessoa));
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.id").value(pessoa.getId().toString()))
+                .andDo(print());
+    }
+
+    /**
+     * Should return not modified when not modified since.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar 304 quando a pessoa não mudou desde a data informada")
+    public void shouldReturnNotModifiedWhenNotModifiedSince() throws Exception {
+
+        var pessoa = getPessoa();
+        var headers = new HttpHeaders();
+
+        headers.setIfModifiedSince(pessoa.getDataAtualizacao().plusSeconds(1));
+
+        when(pessoaService.findVersaoById(pessoa.getId())).thenReturn(new VersaoDTO(1, pessoa.getDataAtualizacao()));
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId()).headers(headers))
+                .andExpect(status().isNotModified())
                 .andDo(print());
+
+        verify(pessoaService, never()).findDTOById(any());
     }
 
     /**
@@ -131,7 +440,7 @@ class PessoaControllerTest {
     @DisplayName("Não deve retornar uma pessoa quando o ID não é encontrado")
     public void shouldNotReturnAPessoaWhenIdNotFound() throws Exception {
 
-        when(pessoaService.findById(any())).thenThrow(ObjectNotFoundException.class);
+        when(pessoaService.findDTOById(any())).thenThrow(ObjectNotFoundException.class);
 
         this.mvc.perform(
                         get("/pessoas/5fed0901-8f2c-4a1a-86b6-1756900f891e"))
@@ -140,6 +449,229 @@ class PessoaControllerTest {
                 .andDo(print());
     }
 
+    /**
+     * Should import pessoas from ndjson.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve importar pessoas em NDJSON")
+    public void shouldImportPessoasFromNdjson() throws Exception {
+
+        var body = """
+                {"nome":"Pessoa 1","dataNascimento":"2000-01-01"}
+                {"nome":"Pessoa 2","dataNascimento":"data inválida"}
+                {"nome":"Pessoa 3","dataNascimento":"2000-01-01"}
+                """;
+
+        when(pessoaService.saveAll(any())).thenAnswer(invocation -> {
+            Map<Integer, Pessoa> lote = invocation.getArgument(0);
+            return lote.keySet().stream().map(linha -> ImportacaoLinhaDTO.criada(linha, UUID.randomUUID())).toList();
+        });
+
+        var result = this.mvc.perform(
+                        post("/pessoas/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andReturn();
+
+        var importacao = mapper.readValue(result.getResponse().getContentAsString(), ImportacaoDTO.class);
+
+        Assertions.assertEquals(3, importacao.total());
+        Assertions.assertEquals(2, importacao.criadas());
+        Assertions.assertEquals(2, importacao.linhas().get(1).linha());
+        Assertions.assertNotNull(importacao.linhas().get(1).erro());
+    }
+
+    /**
+     * Should not save a pessoa when the nome unique index is violated.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Não deve salvar a pessoa quando o índice único do nome for violado")
+    public void shouldNotSaveAPessoaWhenTheNomeUniqueIndexIsViolated() throws Exception {
+
+        var pessoa = mapper.writeValueAsString(getPessoa());
+
+        when(pessoaService.save(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Unique index or primary key violation: \"PUBLIC.UK_TB_PESSOAS_NOME_NORMALIZADO ON PUBLIC.TB_PESSOAS(NOME_NORMALIZADO)\"")));
+
+        this.mvc.perform(
+                        post("/pessoas")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(pessoa))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(MessageUtils.PESSOA_ALREADY_EXISTS))
+                .andDo(print());
+    }
+
+    /**
+     * Should not update a pessoa when if match is stale.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Não deve atualizar a pessoa quando o If-Match não é a versão atual")
+    public void shouldNotUpdateAPessoaWhenIfMatchIsStale() throws Exception {
+
+        var pessoa = getPessoa();
+
+        when(pessoaService.save(any(), any())).thenThrow(new PreconditionFailedException(MessageUtils.VERSION_MISMATCH));
+
+        this.mvc.perform(
+                        put("/pessoas/" + pessoa.getId())
+                                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(this.mapper.writeValueAsString(pessoa)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(MessageUtils.VERSION_MISMATCH))
+                .andDo(print());
+
+        verify(pessoaService).save(any(), eq(List.of(3L)));
+    }
+
+    /**
+     * Should update a pessoa sent in cbor.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve atualizar uma pessoa enviada em CBOR")
+    public void shouldUpdateAPessoaSentInCbor() throws Exception {
+
+        var pessoa = getPessoa();
+        var cbor = CborConfig.compact(new CBORMapper().registerModule(new JavaTimeModule()));
+
+        when(pessoaService.save(any(), eq(List.of(1L)))).thenAnswer(invocation -> {
+            Pessoa salva = invocation.getArgument(0);
+            salva.setVersao(2);
+            return salva;
+        });
+
+        var result = this.mvc.perform(
+                        put("/pessoas/" + pessoa.getId())
+                                .header(HttpHeaders.IF_MATCH, "\"1-cbor\"")
+                                .contentType(MediaType.APPLICATION_CBOR)
+                                .accept(MediaType.APPLICATION_CBOR)
+                                .content(cbor.writeValueAsBytes(pessoa)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-cbor\""))
+                .andReturn();
+
+        var salva = cbor.readValue(result.getResponse().getContentAsByteArray(), PessoaDTO.class);
+
+        Assertions.assertEquals(pessoa.getId(), salva.id());
+        Assertions.assertEquals(pessoa.getDataNascimento(), salva.dataNascimento());
+    }
+
+    /**
+     * Should return conflict when concurrent writes keep winning.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar 409 quando escritas concorrentes vencem todas as tentativas")
+    public void shouldReturnConflictWhenConcurrentWritesKeepWinning() throws Exception {
+
+        var pessoa = getPessoa();
+
+        when(pessoaService.save(any(), any())).thenThrow(new ObjectOptimisticLockingFailureException(Pessoa.class, pessoa.getId()));
+
+        this.mvc.perform(
+                        put("/pessoas/" + pessoa.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(this.mapper.writeValueAsString(pessoa)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(MessageUtils.CONCURRENT_UPDATE))
+                .andDo(print());
+    }
+
+    /**
+     * Should patch a pessoa.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve alterar parcialmente uma pessoa")
+    public void shouldPatchAPessoa() throws Exception {
+
+        var pessoa = getPessoa();
+
+        when(pessoaService.patch(eq(pessoa.getId()), any(), eq(List.of(1L)))).thenAnswer(invocation -> {
+            Consumer<Pessoa> patch = invocation.getArgument(1);
+            patch.accept(pessoa);
+            pessoa.setVersao(2);
+            return pessoa;
+        });
+
+        this.mvc.perform(
+                        patch("/pessoas/" + pessoa.getId())
+                                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                                .contentType(PessoaController.MERGE_PATCH_JSON_VALUE)
+                                .content("{\"dataNascimento\": \"1990-01-01\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.nome").value(pessoa.getNome()))
+                .andExpect(jsonPath("$.dataNascimento").value("1990-01-01"))
+                .andDo(print());
+    }
+
+    /**
+     * Should not patch a pessoa when the patch has other fields.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Não deve alterar parcialmente uma pessoa quando a alteração tem outros campos")
+    public void shouldNotPatchAPessoaWhenThePatchHasOtherFields() throws Exception {
+
+        var pessoa = getPessoa();
+
+        this.mvc.perform(
+                        patch("/pessoas/" + pessoa.getId())
+                                .contentType(PessoaController.MERGE_PATCH_JSON_VALUE)
+                                .content("{\"id\": \"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(MessageUtils.PATCH_INVALID))
+                .andDo(print());
+
+        verify(pessoaService, never()).patch(any(), any(), any());
+    }
+
+    /**
+     * Should return the historico of the pessoa.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar o histórico da pessoa")
+    public void shouldReturnTheHistoricoOfThePessoa() throws Exception {
+
+        var pessoa = getPessoa();
+        var historico = new HistoricoDTO(UUID.randomUUID(), Historico.Tipo.PESSOA, pessoa.getId(), Instant.now(),
+                "{\"nome\":\"" + pessoa.getNome() + "\"}");
+
+        when(historicoService.findByPessoa(pessoa.getId(), 10)).thenReturn(List.of(historico));
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId() + "/history").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tipo").value("PESSOA"))
+                .andExpect(jsonPath("$[0].entidadeId").value(pessoa.getId().toString()))
+                .andExpect(jsonPath("$[0].dados.nome").value(pessoa.getNome()))
+                .andDo(print());
+
+        when(historicoService.findByPessoa(any(), anyInt())).thenThrow(ObjectNotFoundException.class);
+
+        this.mvc.perform(
+                        get("/pessoas/" + UUID.randomUUID() + "/history"))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Should return all enderecos.
      *
@@ -152,21 +684,83 @@ class PessoaControllerTest {
         var pessoa = getPessoa();
         pessoa.setEnderecos(Set.of(getEndereco(), getEndereco()));
 
-        when(enderecoService.findByPessoa(any())).thenReturn(List.copyOf(pessoa.getEnderecos()));
+        when(enderecoService.findByPessoa(any())).thenReturn(getEnderecos(pessoa, 1));
 
         var result = this.mvc.perform(
                         get("/pessoas/" + pessoa.getId() + "/enderecos"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andDo(print())
                 .andReturn();
 
+        verify(pessoaService, never()).findVersaoById(any());
+
         var enderecos = (List<Endereco>) this.mapper.readValue(result.getResponse().getContentAsString(),
                 this.mapper.getTypeFactory().constructCollectionType(List.class, Endereco.class));
 
         Assertions.assertEquals(2, enderecos.size());
     }
 
+    /**
+     * Should send the bytes serialized for the same versao of the enderecos.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve enviar os bytes já serializados para a mesma versão dos endereços")
+    public void shouldSendTheBytesSerializedForTheSameVersaoOfTheEnderecos() throws Exception {
+
+        var pessoa = getPessoa();
+        pessoa.setEnderecos(Set.of(getEndereco()));
+
+        when(enderecoService.findByPessoa(any())).thenReturn(getEnderecos(pessoa, 1));
+
+        var primeira = this.mvc.perform(get("/pessoas/" + pessoa.getId() + "/enderecos"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        pessoa.setEnderecos(Set.of(getEndereco(), getEndereco()));
+
+        when(enderecoService.findByPessoa(any())).thenReturn(getEnderecos(pessoa, 1));
+
+        var segunda = this.mvc.perform(get("/pessoas/" + pessoa.getId() + "/enderecos"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andReturn();
+
+        Assertions.assertArrayEquals(primeira.getResponse().getContentAsByteArray(), segunda.getResponse().getContentAsByteArray());
+
+        when(enderecoService.findByPessoa(any())).thenReturn(getEnderecos(pessoa, 2));
+
+        this.mvc.perform(get("/pessoas/" + pessoa.getId() + "/enderecos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    /**
+     * Should return not modified when the enderecos etag matches.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve retornar 304 sem carregar os endereços quando o ETag não mudou")
+    public void shouldReturnNotModifiedWhenTheEnderecosETagMatches() throws Exception {
+
+        var pessoa = getPessoa();
+
+        when(pessoaService.findVersaoById(pessoa.getId())).thenReturn(new VersaoDTO(1, pessoa.getDataAtualizacao()));
+
+        this.mvc.perform(
+                        get("/pessoas/" + pessoa.getId() + "/enderecos").header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified())
+                .andDo(print());
+
+        verify(enderecoService, never()).findByPessoa(any());
+    }
+
     /**
      * Should not return enderecos when id is null.
      *
@@ -417,7 +1011,7 @@ class PessoaControllerTest {
         pessoa.setId(UUID.fromString("5fed0901-8f2c-4a1a-86b6-1756900f891e"));
 
         when((pessoaService.findById(any()))).thenReturn(pessoa);
-        when((enderecoService.save(any()))).thenReturn(this.mapper.readValue(endereco, Endereco.class));
+        when((enderecoService.save(any(), any()))).thenReturn(this.mapper.readValue(endereco, Endereco.class));
 
         this.mvc.perform(
                         put("/pessoas/5fed0901-8f2c-4a1a-86b6-1756900f891e/enderecos/e00041f8-f829-4d8d-b3ea-c94defe797ed")
@@ -454,12 +1048,171 @@ class PessoaControllerTest {
                 .andDo(print());
     }
 
+    /**
+     * The type Sql statements, requests served by the real services, counting the statements each one issues.
+     */
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @AutoConfigureMockMvc
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = PsAttornatusApplication.class)
+    class SqlStatements {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Autowired
+        private PessoaRepository pessoaRepository;
+
+        @Autowired
+        private EnderecoRepository enderecoRepository;
+
+        @Autowired
+        private EnderecoService enderecoService;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        private final AtomicLong statements = new AtomicLong();
+
+        /**
+         * Clean up.
+         */
+        @AfterEach
+        public void cleanUp() {
+            enderecoRepository.deleteAllInBatch();
+            pessoaRepository.deleteAllInBatch();
+        }
+
+        /**
+         * Should read the enderecos with the versao in a single statement.
+         *
+         * @throws Exception the exception
+         */
+        @Test
+        @DisplayName("Deve ler os endereços com a versão da pessoa em uma única consulta")
+        public void shouldReadTheEnderecosWithTheVersaoInASingleStatement() throws Exception {
+
+            var pessoa = pessoaRepository.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+            var endereco = getEndereco();
+
+            endereco.setId(null);
+            endereco.setPessoa(pessoa);
+            enderecoService.save(endereco);
+
+            var result = this.mvc.perform(get("/pessoas/" + pessoa.getId() + "/enderecos"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andReturn();
+
+            Assertions.assertEquals(1, statements());
+
+            this.mvc.perform(get("/pessoas/" + pessoa.getId() + "/enderecos")
+                            .header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                    .andExpect(status().isNotModified());
+
+            Assertions.assertEquals(1, statements());
+        }
+
+        /**
+         * Should reject the lines too long for their columns up front.
+         *
+         * @throws Exception the exception
+         */
+        @Test
+        @DisplayName("Deve rejeitar de antemão as linhas maiores que as suas colunas")
+        public void shouldRejectTheLinesTooLongForTheirColumnsUpFront() throws Exception {
+
+            var body = """
+                    {"nome":"Pessoa 1","dataNascimento":"2000-01-01"}
+                    {"nome":"%s","dataNascimento":"2000-01-01"}
+                    {"nome":"Pessoa 3","dataNascimento":"2000-01-01","enderecos":[{"logradouro":"Rua","numero":"1","cidade":"Cidade","cep":"12345-678901","principal":true}]}
+                    {"nome":"Pessoa 4","dataNascimento":"2000-01-01"}
+                    """.formatted("P".repeat(150));
+
+            var importacao = importar(body);
+
+            Assertions.assertEquals(2, importacao.criadas());
+            Assertions.assertTrue(importacao.linhas().get(1).erro().startsWith("Nome "));
+            Assertions.assertTrue(importacao.linhas().get(2).erro().startsWith("Enderecos[].cep "));
+            Assertions.assertEquals(Set.of("pessoa 1", "pessoa 4"), Set.copyOf(pessoaRepository.findNomesNormalizadosIn(
+                    List.of("pessoa 1", "pessoa 3", "pessoa 4"))));
+        }
+
+        /**
+         * Should only reject the lines breaking a constraint of the chunk.
+         *
+         * @throws Exception the exception
+         */
+        @Test
+        @DisplayName("Deve rejeitar somente as linhas do lote que violam uma restrição")
+        public void shouldOnlyRejectTheLinesBreakingAConstraintOfTheChunk() throws Exception {
+
+            jdbcTemplate.execute("ALTER TABLE tb_pessoas ADD CONSTRAINT ck_tb_pessoas_nome_teste CHECK (nome <> 'Pessoa 2')");
+
+            try {
+                var body = """
+                        {"nome":"Pessoa 1","dataNascimento":"2000-01-01"}
+                        {"nome":"Pessoa 2","dataNascimento":"2000-01-01"}
+                        {"nome":"Pessoa 3","dataNascimento":"2000-01-01"}
+                        """;
+
+                var importacao = importar(body);
+
+                Assertions.assertEquals(2, importacao.criadas());
+                Assertions.assertNull(importacao.linhas().get(0).erro());
+                Assertions.assertEquals(MessageUtils.DATA_INTEGRITY_VIOLATION, importacao.linhas().get(1).erro());
+                Assertions.assertNull(importacao.linhas().get(2).erro());
+                Assertions.assertEquals(Set.of("pessoa 1", "pessoa 3"), Set.copyOf(pessoaRepository.findNomesNormalizadosIn(
+                        List.of("pessoa 1", "pessoa 2", "pessoa 3"))));
+            } finally {
+                jdbcTemplate.execute("ALTER TABLE tb_pessoas DROP CONSTRAINT ck_tb_pessoas_nome_teste");
+            }
+        }
+
+        private ImportacaoDTO importar(String body) throws Exception {
+
+            var result = this.mvc.perform(
+                            post("/pessoas/bulk")
+                                    .contentType(MediaType.APPLICATION_NDJSON)
+                                    .content(body))
+                    .andExpect(status().isOk())
+                    .andDo(print())
+                    .andReturn();
+
+            return mapper.readValue(result.getResponse().getContentAsByteArray(), ImportacaoDTO.class);
+        }
+
+        private long statements() {
+
+            var total = (long) meterRegistry.get(SqlStatementMetricsFilter.METRIC).tag("uri", "/pessoas/{id}/enderecos").summaries()
+                    .stream()
+                    .mapToDouble(DistributionSummary::totalAmount)
+                    .sum();
+            var anterior = statements.getAndSet(total);
+
+            return total - anterior;
+        }
+    }
+
+    private static EnderecosDTO getEnderecos(Pessoa pessoa, long versao) {
+        return new EnderecosDTO(pessoa.getEnderecos().stream().map(e -> EnderecoDTO.toDTO(e)).toList(), versao, pessoa.getDataAtualizacao());
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
     private Pessoa getPessoa() {
 
         return Pessoa.builder()
                 .id(UUID.randomUUID())
                 .nome("Pessoa " + System.currentTimeMillis())
                 .dataNascimento(LocalDate.now())
+                .versao(1)
+                .dataAtualizacao(Instant.now())
                 .build();
     }
 
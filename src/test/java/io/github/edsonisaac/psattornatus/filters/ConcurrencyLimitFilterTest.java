@@ -0,0 +1,70 @@
+package io.github.edsonisaac.psattornatus.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+/**
+ * The type Concurrency limit filter test.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50), new ObjectMapper());
+
+    /**
+     * Should reject when saturated.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve rejeitar com 503 quando o limite de requisições for atingido")
+    public void shouldRejectWhenSaturated() throws Exception {
+
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            var busy = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("GET", "/pessoas"), new MockHttpServletResponse(), (request, response) -> {
+                    entered.countDown();
+
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            });
+
+            entered.await();
+
+            var response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/pessoas"), response, new MockFilterChain());
+
+            Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+            Assertions.assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+            Assertions.assertTrue(response.getContentAsString().contains(MessageUtils.SERVICE_UNAVAILABLE));
+
+            release.countDown();
+            busy.get();
+        }
+
+        var response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/pessoas"), response, new MockFilterChain());
+
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.edsonisaac.psattornatus.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Runs EXPLAIN for the SQL emitted by every repository query and fails on full table scans.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=io.github.edsonisaac.psattornatus.repositories.QueryPlanTest$RecordingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private HistoricoRepository historicoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Queries stream.
+     *
+     * @return the stream
+     */
+    Stream<Arguments> queries() {
+
+        var id = UUID.randomUUID();
+        var queries = new LinkedHashMap<String, Runnable>();
+
+        queries.put("PessoaRepository.findById", () -> pessoaRepository.findById(id));
+        queries.put("PessoaRepository.findPageIds", () -> pessoaRepository.findPageIds(PageRequest.ofSize(10)));
+        queries.put("PessoaRepository.findPageIdsAfter", () -> pessoaRepository.findPageIdsAfter(id, PageRequest.ofSize(10)));
+        queries.put("PessoaRepository.findAllWithEnderecosByIdIn", () -> pessoaRepository.findAllWithEnderecosByIdIn(List.of(id, UUID.randomUUID())));
+        queries.put("PessoaRepository.findDTOsByIdIn", () -> pessoaRepository.findDTOsByIdIn(List.of(id, UUID.randomUUID())));
+        queries.put("PessoaRepository.findVersaoById", () -> pessoaRepository.findVersaoById(id));
+        queries.put("PessoaRepository.incrementVersao", () -> transactionTemplate.executeWithoutResult(s -> pessoaRepository.incrementVersao(id, Instant.now())));
+        queries.put("PessoaRepository.incrementVersaoIfMatch", () -> transactionTemplate.executeWithoutResult(s -> pessoaRepository.incrementVersaoIfMatch(id, List.of(1L), Instant.now())));
+        queries.put("PessoaRepository.findNomesNormalizadosIn", () -> pessoaRepository.findNomesNormalizadosIn(List.of("pessoa", "outra pessoa")));
+        queries.put("PessoaRepository.streamNomesNormalizados", () -> transactionTemplate.executeWithoutResult(s -> {
+            try (var nomes = pessoaRepository.streamNomesNormalizados()) {
+                nomes.forEach(nome -> { });
+            }
+        }));
+        queries.put("PessoaRepository.streamIndice", () -> transactionTemplate.executeWithoutResult(s -> {
+            try (var linhas = pessoaRepository.streamIndice()) {
+                linhas.forEach(linha -> { });
+            }
+        }));
+        queries.put("PessoaRepository.findIndiceByIdIn", () -> pessoaRepository.findIndiceByIdIn(List.of(id, UUID.randomUUID())));
+        queries.put("PessoaRepository.findByNomeNormalizado", () -> pessoaRepository.findByNomeNormalizado("pessoa"));
+        queries.put("EnderecoRepository.findById", () -> enderecoRepository.findById(id));
+        queries.put("EnderecoRepository.clearPrincipal", () -> transactionTemplate.executeWithoutResult(s -> enderecoRepository.clearPrincipal(id)));
+        queries.put("EnderecoRepository.clearOtherPrincipal", () -> transactionTemplate.executeWithoutResult(s -> enderecoRepository.clearOtherPrincipal(id, UUID.randomUUID())));
+        queries.put("EnderecoRepository.findByPessoa", () -> enderecoRepository.findByPessoa(id));
+        queries.put("EnderecoRepository.findVersaoById", () -> enderecoRepository.findVersaoById(id));
+        queries.put("HistoricoRepository.findDTOsByPessoa", () -> historicoRepository.findDTOsByPessoa(id, PageRequest.ofSize(10)));
+
+        return queries.entrySet().stream().map(e -> Arguments.of(e.getKey(), e.getValue()));
+    }
+
+    /**
+     * Every query declared on a repository must be covered by this suite.
+     */
+    @Test
+    @DisplayName("Deve cobrir todas as consultas declaradas nos repositórios")
+    public void shouldCoverEveryDeclaredQuery() {
+
+        var covered = queries().map(a -> (String) a.get()[0]).toList();
+
+        Stream.of(PessoaRepository.class, EnderecoRepository.class, HistoricoRepository.class)
+                .flatMap(r -> Arrays.stream(r.getDeclaredMethods()).map(m -> r.getSimpleName() + "." + m.getName()))
+                .forEach(query -> Assertions.assertTrue(covered.contains(query), query + " não possui verificação de plano"));
+    }
+
+    /**
+     * Should not scan the whole table.
+     *
+     * @param name  the name
+     * @param query the query
+     */
+    @MethodSource("queries")
+    @ParameterizedTest(name = "{0}")
+    public void shouldNotScanTheWholeTable(String name, Runnable query) {
+
+        STATEMENTS.clear();
+        query.run();
+
+        Assertions.assertFalse(STATEMENTS.isEmpty(), name + " não executou SQL");
+
+        STATEMENTS.forEach(sql -> {
+            var plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            Assertions.assertFalse(plan.contains(".tableScan"), name + " faz varredura completa:\n" + plan);
+        });
+    }
+
+    /**
+     * Records every statement prepared by Hibernate.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
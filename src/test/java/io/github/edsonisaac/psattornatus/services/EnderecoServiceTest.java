@@ -0,0 +1,317 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import io.github.edsonisaac.psattornatus.configs.SingleFlightConfig;
+import io.github.edsonisaac.psattornatus.dtos.EnderecosDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.exceptions.PreconditionFailedException;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.github.edsonisaac.psattornatus.utils.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The type Endereco service test.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EnderecoServiceTest {
+
+    // the historico writer would run its own statements while these tests count them
+    @MockBean
+    private HistoricoService historicoService;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Clean up.
+     */
+    @AfterEach
+    public void cleanUp() {
+        enderecoRepository.deleteAllInBatch();
+        pessoaRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Should replace the principal endereco.
+     */
+    @Test
+    @DisplayName("Deve substituir o endereço principal")
+    public void shouldReplaceThePrincipalEndereco() {
+
+        var pessoa = getPessoa();
+        var antigo = enderecoService.save(getEndereco(pessoa));
+        var novo = enderecoService.save(getEndereco(pessoa));
+
+        Assertions.assertFalse(enderecoRepository.findById(antigo.getId()).orElseThrow().getPrincipal());
+        Assertions.assertTrue(enderecoRepository.findById(novo.getId()).orElseThrow().getPrincipal());
+    }
+
+    /**
+     * Should not save the principal endereco when pessoa not found.
+     */
+    @Test
+    @DisplayName("Não deve salvar o endereço principal quando a pessoa não é encontrada")
+    public void shouldNotSaveThePrincipalEnderecoWhenPessoaNotFound() {
+
+        var pessoa = Pessoa.builder().id(UUID.randomUUID()).build();
+
+        Assertions.assertThrows(ObjectNotFoundException.class, () -> enderecoService.save(getEndereco(pessoa)));
+    }
+
+    /**
+     * Should keep a single principal endereco under concurrent writes.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve manter um único endereço principal com escritas concorrentes")
+    public void shouldKeepASinglePrincipalEnderecoUnderConcurrentWrites() throws Exception {
+
+        var pessoa = getPessoa();
+        var threads = 8;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        var futures = new ArrayList<Future<Endereco>>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit((Callable<Endereco>) () -> {
+                    start.await();
+                    return enderecoService.save(getEndereco(pessoa));
+                }));
+            }
+
+            start.countDown();
+
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var enderecos = enderecoRepository.findByPessoa(pessoa.getId());
+
+        Assertions.assertEquals(threads, enderecos.size());
+        Assertions.assertEquals(1, enderecos.stream().filter(Endereco::getPrincipal).count());
+    }
+
+    /**
+     * Should increment the versao of the pessoa when an endereco changes.
+     */
+    @Test
+    @DisplayName("Deve incrementar a versão da pessoa quando um endereço muda")
+    public void shouldIncrementTheVersaoOfThePessoaWhenAnEnderecoChanges() {
+
+        var pessoa = getPessoa();
+        var antes = pessoaRepository.findVersaoById(pessoa.getId()).orElseThrow();
+        var endereco = enderecoService.save(getEndereco(pessoa));
+
+        Assertions.assertEquals(antes.versao() + 1, pessoaRepository.findVersaoById(pessoa.getId()).orElseThrow().versao());
+
+        endereco.setPrincipal(false);
+        endereco.setVersao(0);
+        enderecoService.save(endereco);
+
+        Assertions.assertEquals(antes.versao() + 2, pessoaRepository.findVersaoById(pessoa.getId()).orElseThrow().versao());
+        Assertions.assertEquals(1, enderecoRepository.findVersaoById(endereco.getId()).orElseThrow().versao());
+    }
+
+    /**
+     * Should accept a single writer of the same versao.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve aceitar um único escritor da mesma versão da pessoa")
+    public void shouldAcceptASingleWriterOfTheSameVersao() throws Exception {
+
+        var pessoa = getPessoa();
+        var versao = pessoaRepository.findVersaoById(pessoa.getId()).orElseThrow().versao();
+        var threads = 8;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        var futures = new ArrayList<Future<Endereco>>();
+        var recusados = 0;
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit((Callable<Endereco>) () -> {
+                    start.await();
+                    return enderecoService.save(getEndereco(pessoa), List.of(versao));
+                }));
+            }
+
+            start.countDown();
+
+            for (var future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    Assertions.assertInstanceOf(PreconditionFailedException.class, ex.getCause());
+                    recusados++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(threads - 1, recusados);
+        Assertions.assertEquals(1, enderecoRepository.findByPessoa(pessoa.getId()).size());
+        Assertions.assertEquals(versao + 1, pessoaRepository.findVersaoById(pessoa.getId()).orElseThrow().versao());
+    }
+
+    /**
+     * Should patch the principal endereco.
+     */
+    @Test
+    @DisplayName("Deve alterar o endereço principal parcialmente")
+    public void shouldPatchThePrincipalEndereco() {
+
+        var pessoa = getPessoa();
+        var antigo = enderecoService.save(getEndereco(pessoa));
+        var novo = getEndereco(pessoa);
+
+        novo.setPrincipal(false);
+        novo = enderecoService.save(novo);
+
+        var patched = enderecoService.patch(pessoa.getId(), novo.getId(), e -> e.setPrincipal(true), null);
+
+        Assertions.assertTrue(patched.getPrincipal());
+        Assertions.assertFalse(enderecoRepository.findById(antigo.getId()).orElseThrow().getPrincipal());
+        Assertions.assertTrue(enderecoRepository.findById(novo.getId()).orElseThrow().getPrincipal());
+        Assertions.assertEquals("Irecê", enderecoRepository.findById(novo.getId()).orElseThrow().getCidade());
+
+        var outra = getPessoa();
+        var enderecoId = novo.getId();
+
+        Assertions.assertThrows(ObjectNotFoundException.class, () ->
+                enderecoService.patch(outra.getId(), enderecoId, e -> e.setCidade("Salvador"), null));
+    }
+
+    /**
+     * Should find the enderecos of the pessoa in a single statement.
+     */
+    @Test
+    @DisplayName("Deve buscar os endereços da pessoa em uma única consulta")
+    public void shouldFindTheEnderecosOfThePessoaInASingleStatement() {
+
+        var pessoa = getPessoa();
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+
+        Assertions.assertTrue(enderecoService.findByPessoa(pessoa.getId()).enderecos().isEmpty());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+
+        var endereco = enderecoService.save(getEndereco(pessoa));
+
+        statistics.clear();
+
+        var enderecos = enderecoService.findByPessoa(pessoa.getId());
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(List.of(endereco.getId()), enderecos.enderecos().stream().map(e -> e.id()).toList());
+        Assertions.assertEquals(pessoaRepository.findVersaoById(pessoa.getId()).orElseThrow().versao(), enderecos.versao());
+
+        statistics.clear();
+
+        Assertions.assertThrows(ObjectNotFoundException.class, () -> enderecoService.findByPessoa(UUID.randomUUID()));
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Should share the enderecos query among concurrent reads of the same pessoa.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve compartilhar a consulta dos endereços entre leituras concorrentes da mesma pessoa")
+    public void shouldShareTheEnderecosQueryAmongConcurrentReads() throws Exception {
+
+        var pessoa = getPessoa();
+        var endereco = enderecoService.save(getEndereco(pessoa));
+        var threads = 64;
+        var leituras = 20;
+        var coalesced = meterRegistry.counter(SingleFlight.METRIC, "load", SingleFlightConfig.ENDERECOS, "outcome", "coalesced");
+        var antes = coalesced.count();
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        var futures = new ArrayList<Future<EnderecosDTO>>();
+
+        statistics.clear();
+
+        try {
+            for (int i = 0; i < threads * leituras; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return enderecoService.findByPessoa(pessoa.getId());
+                }));
+            }
+
+            start.countDown();
+
+            for (var future : futures) {
+                Assertions.assertEquals(List.of(endereco.getId()), future.get().enderecos().stream().map(e -> e.id()).toList());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var statements = statistics.getPrepareStatementCount();
+
+        Assertions.assertEquals(threads * leituras, statements + (long) (coalesced.count() - antes));
+        Assertions.assertTrue(statements < threads * leituras / 2, () -> statements + " statements");
+    }
+
+    private Pessoa getPessoa() {
+
+        return pessoaRepository.save(Pessoa.builder()
+                .nome("Pessoa " + System.nanoTime())
+                .dataNascimento(LocalDate.now())
+                .build());
+    }
+
+    private Endereco getEndereco(Pessoa pessoa) {
+
+        return Endereco.builder()
+                .logradouro("Avenida Primero de Janeiro")
+                .numero("1")
+                .cidade("Irecê")
+                .cep("44900000")
+                .principal(true)
+                .pessoa(pessoa)
+                .build();
+    }
+}
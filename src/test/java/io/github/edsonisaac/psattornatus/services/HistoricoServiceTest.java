@@ -0,0 +1,158 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.edsonisaac.psattornatus.configs.HistoricoProperties;
+import io.github.edsonisaac.psattornatus.dtos.HistoricoDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Historico;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.exceptions.ObjectNotFoundException;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.HistoricoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The type Historico service test.
+ */
+@SpringBootTest
+class HistoricoServiceTest {
+
+    @Autowired
+    private HistoricoService historicoService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private HistoricoRepository historicoRepository;
+
+    /**
+     * Clean up.
+     */
+    @AfterEach
+    public void cleanUp() {
+        enderecoRepository.deleteAllInBatch();
+        pessoaRepository.deleteAllInBatch();
+        historicoRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Should keep the historico of the pessoa and of its enderecos.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve manter o histórico da pessoa e dos seus endereços")
+    public void shouldKeepTheHistoricoOfThePessoaAndOfItsEnderecos() throws Exception {
+
+        var pessoa = pessoaService.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+        var endereco = enderecoService.save(Endereco.builder()
+                .logradouro("Avenida Primero de Janeiro")
+                .numero("1")
+                .cidade("Irecê")
+                .cep("44900000")
+                .principal(true)
+                .pessoa(pessoa)
+                .build());
+
+        pessoaService.patch(pessoa.getId(), p -> p.setNome("Outro nome " + UUID.randomUUID()), null);
+
+        var historico = await(pessoa.getId(), 3);
+
+        Assertions.assertEquals(List.of(Historico.Tipo.PESSOA, Historico.Tipo.ENDERECO, Historico.Tipo.PESSOA),
+                historico.stream().map(HistoricoDTO::tipo).toList());
+        Assertions.assertEquals(endereco.getId(), historico.get(1).entidadeId());
+        Assertions.assertTrue(historico.get(0).dados().contains("Outro nome"));
+        Assertions.assertTrue(historico.get(1).dados().contains("Irecê"));
+        Assertions.assertEquals(1, historicoService.findByPessoa(pessoa.getId(), 1).size());
+    }
+
+    /**
+     * Should tell a pessoa without historico from a missing pessoa.
+     */
+    @Test
+    @DisplayName("Deve diferenciar uma pessoa sem histórico de uma pessoa inexistente")
+    public void shouldTellAPessoaWithoutHistoricoFromAMissingPessoa() {
+
+        var pessoa = pessoaRepository.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+
+        Assertions.assertTrue(historicoService.findByPessoa(pessoa.getId(), 10).isEmpty());
+        Assertions.assertThrows(ObjectNotFoundException.class, () -> historicoService.findByPessoa(UUID.randomUUID(), 10));
+    }
+
+    /**
+     * Should drop changes when the queue is full.
+     */
+    @Test
+    @DisplayName("Deve descartar alterações quando a fila está cheia")
+    public void shouldDropChangesWhenTheQueueIsFull() {
+
+        var registry = new SimpleMeterRegistry();
+        var service = new HistoricoService(null, null, null, new ObjectMapper(),
+                new HistoricoProperties(1, 10, Duration.ZERO), registry);
+        var id = UUID.randomUUID();
+
+        service.offer(new HistoricoService.Alteracao(id, Historico.Tipo.PESSOA, id, Instant.now(), "{}"));
+        service.offer(new HistoricoService.Alteracao(id, Historico.Tipo.PESSOA, id, Instant.now(), "{}"));
+
+        Assertions.assertEquals(1, registry.get(HistoricoService.QUEUE_METRIC).gauge().value());
+        Assertions.assertEquals(1, registry.get(HistoricoService.DROPPED_METRIC).counter().count());
+    }
+
+    /**
+     * Should drop changes once stopped, after the web server.
+     */
+    @Test
+    @DisplayName("Deve descartar alterações recebidas depois de parar, após o servidor web")
+    public void shouldDropChangesOnceStopped() {
+
+        var registry = new SimpleMeterRegistry();
+        var service = new HistoricoService(null, null, null, new ObjectMapper(),
+                new HistoricoProperties(10, 10, Duration.ZERO), registry);
+        var id = UUID.randomUUID();
+
+        service.start();
+        service.stop();
+        service.offer(new HistoricoService.Alteracao(id, Historico.Tipo.PESSOA, id, Instant.now(), "{}"));
+
+        Assertions.assertEquals(0, registry.get(HistoricoService.QUEUE_METRIC).gauge().value());
+        Assertions.assertEquals(1, registry.get(HistoricoService.DROPPED_METRIC).counter().count());
+        Assertions.assertTrue(service.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    private List<HistoricoDTO> await(UUID pessoaId, int size) throws InterruptedException {
+
+        var limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        var historico = historicoService.findByPessoa(pessoaId, 10);
+
+        while (historico.size() < size && System.nanoTime() < limite) {
+            Thread.sleep(50);
+            historico = historicoService.findByPessoa(pessoaId, 10);
+        }
+
+        return historico;
+    }
+}
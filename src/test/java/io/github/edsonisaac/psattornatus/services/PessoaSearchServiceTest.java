@@ -0,0 +1,174 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import io.github.edsonisaac.psattornatus.dtos.PessoaFiltroDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The type Pessoa search service test.
+ */
+@SpringBootTest
+class PessoaSearchServiceTest {
+
+    @Autowired
+    private PessoaSearchService pessoaSearchService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    /**
+     * Sets up, dropping what other tests sharing this context left in the index.
+     */
+    @BeforeEach
+    public void setup() {
+        pessoaSearchService.rebuild();
+    }
+
+    /**
+     * Clean up.
+     */
+    @AfterEach
+    public void cleanUp() {
+        enderecoRepository.deleteAllInBatch();
+        pessoaRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Should find pessoas by any word prefix of the nome.
+     */
+    @Test
+    @DisplayName("Deve encontrar pessoas pelo início de qualquer palavra do nome")
+    public void shouldFindPessoasByAnyWordPrefixOfTheNome() {
+
+        var jose = save("José da Conceição", LocalDate.of(1980, 5, 1));
+        var maria = save("Maria Conceição Souza", LocalDate.of(1990, 5, 1));
+        save("Joana Prado", LocalDate.of(2000, 5, 1));
+
+        Assertions.assertEquals(List.of(jose.getId(), maria.getId()), search(new PessoaFiltroDTO("concei", null, null, null, null)));
+        Assertions.assertEquals(List.of(jose.getId()), search(new PessoaFiltroDTO("JOSE conc", null, null, null, null)));
+        Assertions.assertEquals(List.of(maria.getId()), search(new PessoaFiltroDTO("conceicao", null, null, LocalDate.of(1985, 1, 1), LocalDate.of(1995, 1, 1))));
+    }
+
+    /**
+     * Should find pessoas by a misspelled nome.
+     */
+    @Test
+    @DisplayName("Deve encontrar pessoas por um nome com erro de digitação")
+    public void shouldFindPessoasByAMisspelledNome() {
+
+        var jose = save("José da Conceição", LocalDate.of(1980, 5, 1));
+        save("Maria Souza", LocalDate.of(1990, 5, 1));
+
+        Assertions.assertEquals(List.of(jose.getId()), search(new PessoaFiltroDTO("jose da concesao", null, null, null, null)));
+        Assertions.assertEquals(List.of(), search(new PessoaFiltroDTO("xyz", null, null, null, null)));
+    }
+
+    /**
+     * Should filter pessoas by cidade and cep prefix.
+     */
+    @Test
+    @DisplayName("Deve filtrar pessoas pela cidade e pelo início do cep")
+    public void shouldFilterPessoasByCidadeAndCepPrefix() {
+
+        var jose = save("José da Conceição", LocalDate.of(1980, 5, 1));
+        var maria = save("Maria Souza", LocalDate.of(1990, 5, 1));
+
+        enderecoService.save(getEndereco(jose, "Irecê", "44900-000"));
+        enderecoService.save(getEndereco(maria, "Salvador", "40010000"));
+
+        Assertions.assertEquals(List.of(jose.getId()), search(new PessoaFiltroDTO(null, "IRECE", null, null, null)));
+        Assertions.assertEquals(List.of(jose.getId(), maria.getId()), search(new PessoaFiltroDTO(null, null, "4", null, null)));
+        Assertions.assertEquals(List.of(maria.getId()), search(new PessoaFiltroDTO(null, null, "4001", null, null)));
+        Assertions.assertEquals(List.of(), search(new PessoaFiltroDTO("maria", "irecê", null, null, null)));
+
+        pessoaService.save(Pessoa.builder().id(jose.getId()).nome("José Conceição").dataNascimento(jose.getDataNascimento()).build());
+
+        Assertions.assertEquals(List.of(jose.getId()), search(new PessoaFiltroDTO("jose", "irece", null, null, null)));
+    }
+
+    /**
+     * Should page the matches and count them all.
+     */
+    @Test
+    @DisplayName("Deve paginar os resultados e contar todos eles")
+    public void shouldPageTheMatchesAndCountThemAll() {
+
+        var lote = new LinkedHashMap<Integer, Pessoa>();
+
+        for (int i = 0; i < 25; i++) {
+            lote.put(i, Pessoa.builder()
+                    .nome("Importada %02d".formatted(i))
+                    .dataNascimento(LocalDate.now())
+                    .enderecos(Set.of(getEndereco(null, "Irecê", "44900000")))
+                    .build());
+        }
+
+        pessoaService.saveAll(lote);
+
+        var primeira = pessoaSearchService.search(new PessoaFiltroDTO("importada", "irece", null, null, null), 0, 10);
+        var ultima = pessoaSearchService.search(new PessoaFiltroDTO("importada", "irece", null, null, null), 2, 10);
+
+        Assertions.assertEquals(25, primeira.total());
+        Assertions.assertEquals(10, primeira.ids().size());
+        Assertions.assertEquals(5, ultima.ids().size());
+        Assertions.assertEquals("Importada 24", pessoaService.findById(ultima.ids().get(4)).getNome());
+        Assertions.assertThrows(ValidationException.class, () -> pessoaSearchService.search(new PessoaFiltroDTO(null, null, null, null, null), 0, 101));
+    }
+
+    /**
+     * Should index the pessoas written directly in the database when rebuilt.
+     */
+    @Test
+    @DisplayName("Deve indexar as pessoas gravadas diretamente no banco ao reconstruir o índice")
+    public void shouldIndexThePessoasWrittenDirectlyInTheDatabaseWhenRebuilt() {
+
+        var pessoa = pessoaRepository.save(Pessoa.builder().nome("Gravada Diretamente").dataNascimento(LocalDate.now()).build());
+
+        Assertions.assertEquals(List.of(), search(new PessoaFiltroDTO("gravada", null, null, null, null)));
+
+        pessoaSearchService.rebuild();
+
+        Assertions.assertEquals(List.of(pessoa.getId()), search(new PessoaFiltroDTO("gravada", null, null, null, null)));
+    }
+
+    private List<UUID> search(PessoaFiltroDTO filtro) {
+        return pessoaSearchService.search(filtro, 0, PessoaSearchService.MAX_SEARCH_SIZE).ids();
+    }
+
+    private Pessoa save(String nome, LocalDate dataNascimento) {
+        return pessoaService.save(Pessoa.builder().nome(nome).dataNascimento(dataNascimento).build());
+    }
+
+    private Endereco getEndereco(Pessoa pessoa, String cidade, String cep) {
+
+        return Endereco.builder()
+                .logradouro("Avenida Primero de Janeiro")
+                .numero("1")
+                .cidade(cidade)
+                .cep(cep)
+                .principal(true)
+                .pessoa(pessoa)
+                .build();
+    }
+}
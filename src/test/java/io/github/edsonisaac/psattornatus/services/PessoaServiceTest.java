@@ -0,0 +1,522 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import io.github.edsonisaac.psattornatus.configs.CacheConfig;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.entities.Endereco;
+import io.github.edsonisaac.psattornatus.entities.Pessoa;
+import io.github.edsonisaac.psattornatus.exceptions.PreconditionFailedException;
+import io.github.edsonisaac.psattornatus.exceptions.ValidationException;
+import io.github.edsonisaac.psattornatus.repositories.EnderecoRepository;
+import io.github.edsonisaac.psattornatus.repositories.PessoaRepository;
+import io.github.edsonisaac.psattornatus.utils.MessageUtils;
+import io.github.edsonisaac.psattornatus.utils.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * The type Pessoa service test.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PessoaServiceTest {
+
+    // the historico writer would run its own statements while these tests count them
+    @MockBean
+    private HistoricoService historicoService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @SpyBean
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private NomeFilterService nomeFilterService;
+
+    private Statistics statistics;
+
+    /**
+     * Sets .
+     */
+    @BeforeAll
+    public void setup() {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Clean up.
+     */
+    @AfterEach
+    public void cleanUp() {
+        cacheManager.getCache(CacheConfig.PESSOAS).clear();
+        enderecoRepository.deleteAllInBatch();
+        pessoaRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Should list pessoas with a constant number of statements.
+     */
+    @Test
+    @DisplayName("Deve listar pessoas com um número constante de consultas")
+    public void shouldListPessoasWithAConstantNumberOfStatements() {
+
+        Assertions.assertEquals(2, countStatementsToList(5));
+
+        cleanUp();
+
+        Assertions.assertEquals(2, countStatementsToList(50));
+    }
+
+    /**
+     * Should list pessoas without loading entities.
+     */
+    @Test
+    @DisplayName("Deve listar pessoas sem carregar entidades")
+    public void shouldListPessoasWithoutLoadingEntities() {
+
+        seed(5);
+        var semEndereco = pessoaRepository.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+
+        statistics.clear();
+
+        var pessoas = pessoaService.findAll(null, 10);
+
+        Assertions.assertEquals(6, pessoas.size());
+        Assertions.assertEquals(Set.of(), pessoaService.findDTOById(semEndereco.getId()).enderecos());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Should walk every page when iterating.
+     */
+    @Test
+    @DisplayName("Deve percorrer todas as páginas")
+    public void shouldWalkEveryPage() {
+
+        seed(25);
+
+        var ids = new ArrayList<UUID>();
+        pessoaService.forEach(10, p -> ids.add(p.id()));
+
+        Assertions.assertEquals(25, ids.size());
+        Assertions.assertEquals(25, ids.stream().distinct().count());
+    }
+
+    /**
+     * Should find many pessoas by id through the cache.
+     */
+    @Test
+    @DisplayName("Deve buscar várias pessoas pelo id passando pelo cache")
+    public void shouldFindManyPessoasByIdThroughTheCache() {
+
+        seed(3);
+
+        var ids = pessoaRepository.findAll().stream().map(Pessoa::getId).toList();
+        var desconhecido = UUID.randomUUID();
+
+        pessoaService.findDTOById(ids.get(1));
+        statistics.clear();
+
+        var pessoas = pessoaService.findAllById(List.of(ids.get(2), desconhecido, ids.get(0), ids.get(1)));
+
+        Assertions.assertEquals(List.of(ids.get(2), ids.get(0), ids.get(1)), pessoas.stream().map(PessoaDTO::id).toList());
+        pessoas.forEach(p -> Assertions.assertEquals(2, p.enderecos().size()));
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+
+        Assertions.assertNull(cacheManager.getCache(CacheConfig.PESSOAS).get(ids.get(0)));
+    }
+
+    /**
+     * Should not cache a pessoa written while it was being read.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Não deve guardar no cache a pessoa alterada enquanto era lida")
+    public void shouldNotCacheAPessoaWrittenWhileItWasBeingRead() throws Exception {
+
+        seed(1);
+
+        var id = pessoaRepository.findAll().get(0).getId();
+        var nascimento = LocalDate.now().minusDays(1);
+        // the spy of the repository proxy delegates to it through its default answer
+        var repository = mockingDetails(pessoaRepository).getMockCreationSettings().getDefaultAnswer();
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+
+            // the write commits, and evicts the pessoa, after the batch read it and before the batch returns
+            doAnswer(invocation -> {
+
+                var lidas = repository.answer(invocation);
+
+                executor.submit(() -> pessoaService.save(Pessoa.builder().id(id).nome("Pessoa 0").dataNascimento(nascimento).build())).get();
+
+                return lidas;
+            }).doAnswer(repository).when(pessoaRepository).findDTOsByIdIn(List.of(id));
+
+            Assertions.assertEquals(LocalDate.now(), pessoaService.findAllById(List.of(id)).get(0).dataNascimento());
+        }
+
+        Assertions.assertEquals(nascimento, pessoaService.findDTOById(id).dataNascimento());
+    }
+
+    /**
+     * Should read the pessoa from the cache until it is written.
+     */
+    @Test
+    @DisplayName("Deve ler a pessoa do cache até que ela seja alterada")
+    public void shouldReadThePessoaFromTheCacheUntilItIsWritten() {
+
+        seed(1);
+
+        var id = pessoaRepository.findAll().get(0).getId();
+        var cache = cacheManager.getCache(CacheConfig.PESSOAS);
+
+        statistics.clear();
+        pessoaService.findDTOById(id);
+        var statements = statistics.getPrepareStatementCount();
+
+        var pessoa = pessoaService.findDTOById(id);
+
+        Assertions.assertEquals(statements, statistics.getPrepareStatementCount());
+        Assertions.assertNotNull(cache.get(id));
+
+        pessoaService.save(Pessoa.builder().id(id).nome(pessoa.nome()).dataNascimento(LocalDate.now().minusDays(1)).build());
+
+        Assertions.assertNull(cache.get(id));
+        Assertions.assertEquals(LocalDate.now().minusDays(1), pessoaService.findDTOById(id).dataNascimento());
+
+        enderecoService.save(Endereco.builder()
+                .logradouro("Rua Felisberto de Castro Dourado")
+                .numero("328")
+                .cidade("Irecê")
+                .cep("44900000")
+                .principal(true)
+                .pessoa(Pessoa.builder().id(id).build())
+                .build());
+
+        Assertions.assertNull(cache.get(id));
+        Assertions.assertEquals(3, pessoaService.findDTOById(id).enderecos().size());
+    }
+
+    /**
+     * Should import a chunk rejecting duplicated and invalid pessoas.
+     */
+    @Test
+    @DisplayName("Deve importar um lote rejeitando pessoas duplicadas e inválidas")
+    public void shouldImportAChunkRejectingDuplicatedAndInvalidPessoas() {
+
+        seed(1);
+
+        var lote = new LinkedHashMap<Integer, Pessoa>();
+
+        for (int i = 1; i <= 20; i++) {
+
+            var pessoa = Pessoa.builder().nome("Importada " + i).dataNascimento(LocalDate.now()).build();
+            pessoa.setEnderecos(Set.of(Endereco.builder()
+                    .logradouro("Avenida Primero de Janeiro")
+                    .numero("1")
+                    .cidade("Irecê")
+                    .cep("44900000")
+                    .principal(true)
+                    .build()));
+
+            lote.put(i, pessoa);
+        }
+
+        lote.put(21, Pessoa.builder().nome("importada 1").dataNascimento(LocalDate.now()).build());
+        lote.put(22, Pessoa.builder().nome("PESSOA 0").dataNascimento(LocalDate.now()).build());
+        lote.put(23, Pessoa.builder().nome("").dataNascimento(LocalDate.now()).build());
+
+        statistics.clear();
+
+        var linhas = pessoaService.saveAll(lote);
+
+        // one lookup for the duplicated nomes plus one batched insert per table
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+
+        Assertions.assertEquals(23, linhas.size());
+        Assertions.assertEquals(20, linhas.stream().filter(l -> l.erro() == null).count());
+        Assertions.assertEquals(MessageUtils.PESSOA_ALREADY_EXISTS, linhas.get(20).erro());
+        Assertions.assertEquals(MessageUtils.PESSOA_ALREADY_EXISTS, linhas.get(21).erro());
+        Assertions.assertNotNull(linhas.get(22).erro());
+        Assertions.assertEquals(21, pessoaRepository.count());
+        Assertions.assertEquals(22, enderecoRepository.count());
+    }
+
+    /**
+     * Should import every endereco of a pessoa.
+     */
+    @Test
+    @DisplayName("Deve importar todos os endereços de uma pessoa")
+    public void shouldImportEveryEnderecoOfAPessoa() {
+
+        var pessoa = Pessoa.builder().nome("Importada com endereços").dataNascimento(LocalDate.now()).build();
+        pessoa.setEnderecos(new HashSet<>(List.of(getEndereco(true), getEndereco(false))));
+
+        var linhas = pessoaService.saveAll(new LinkedHashMap<>(Map.of(1, pessoa)));
+
+        Assertions.assertNull(linhas.get(0).erro());
+        Assertions.assertEquals(2, pessoaService.findDTOById(linhas.get(0).id()).enderecos().size());
+    }
+
+    /**
+     * Should not import a pessoa with two principal enderecos.
+     */
+    @Test
+    @DisplayName("Não deve importar uma pessoa com dois endereços principais")
+    public void shouldNotImportAPessoaWithTwoPrincipalEnderecos() {
+
+        var pessoa = Pessoa.builder().nome("Importada com dois principais").dataNascimento(LocalDate.now()).build();
+        pessoa.setEnderecos(new HashSet<>(List.of(getEndereco(true), getEndereco(true))));
+
+        var linhas = pessoaService.saveAll(new LinkedHashMap<>(Map.of(1, pessoa)));
+
+        Assertions.assertEquals(MessageUtils.ENDERECO_PRINCIPAL_DUPLICADO, linhas.get(0).erro());
+        Assertions.assertEquals(0, pessoaRepository.count());
+    }
+
+    /**
+     * Should not save a pessoa whose nome only differs by case and accents.
+     */
+    @Test
+    @DisplayName("Deve recusar nomes que diferem apenas em maiúsculas e acentos")
+    public void shouldNotSaveAPessoaWhoseNomeOnlyDiffersByCaseAndAccents() {
+
+        var pessoa = pessoaService.save(Pessoa.builder().nome("José Conceição").dataNascimento(LocalDate.now()).build());
+
+        Assertions.assertEquals("jose conceicao", pessoaRepository.findById(pessoa.getId()).orElseThrow().getNomeNormalizado());
+
+        var exception = Assertions.assertThrows(ValidationException.class, () ->
+                pessoaService.save(Pessoa.builder().nome(" JOSE CONCEICAO").dataNascimento(LocalDate.now()).build()));
+
+        Assertions.assertEquals(MessageUtils.PESSOA_ALREADY_EXISTS, exception.getMessage());
+
+        pessoaService.save(Pessoa.builder().id(pessoa.getId()).nome("Ângela Conceição").dataNascimento(LocalDate.now()).build());
+
+        Assertions.assertEquals("angela conceicao", pessoaRepository.findById(pessoa.getId()).orElseThrow().getNomeNormalizado());
+    }
+
+    /**
+     * Should save a new nome without looking it up.
+     */
+    @Test
+    @DisplayName("Deve salvar um nome novo sem consultá-lo")
+    public void shouldSaveANewNomeWithoutLookingItUp() {
+
+        SqlStatementCounter.start();
+        pessoaService.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+
+        // only the insert
+        Assertions.assertEquals(1, SqlStatementCounter.stop());
+    }
+
+    /**
+     * Should rely on the unique index for nomes the filter has not seen.
+     */
+    @Test
+    @DisplayName("Deve recorrer ao índice único para nomes que o filtro não conhece")
+    public void shouldRelyOnTheUniqueIndexForNomesTheFilterHasNotSeen() {
+
+        var nome = "Pessoa " + UUID.randomUUID();
+
+        pessoaRepository.save(Pessoa.builder().nome(nome).dataNascimento(LocalDate.now()).build());
+
+        Assertions.assertThrows(DataIntegrityViolationException.class, () ->
+                pessoaService.save(Pessoa.builder().nome(nome.toUpperCase()).dataNascimento(LocalDate.now()).build()));
+
+        nomeFilterService.warmUp();
+
+        Assertions.assertThrows(ValidationException.class, () ->
+                pessoaService.save(Pessoa.builder().nome(nome.toUpperCase()).dataNascimento(LocalDate.now()).build()));
+    }
+
+    /**
+     * Should only update a pessoa whose versao is the expected one.
+     */
+    @Test
+    @DisplayName("Deve atualizar a pessoa apenas na versão esperada")
+    public void shouldOnlyUpdateAPessoaWhoseVersaoIsTheExpectedOne() {
+
+        var pessoa = pessoaService.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+        var versao = pessoa.getVersao();
+
+        pessoa.setNome("Pessoa " + UUID.randomUUID());
+
+        var atualizada = pessoaService.save(pessoa, List.of(versao));
+
+        Assertions.assertEquals(versao + 1, atualizada.getVersao());
+
+        atualizada.setNome("Pessoa " + UUID.randomUUID());
+
+        var exception = Assertions.assertThrows(PreconditionFailedException.class, () -> pessoaService.save(atualizada, List.of(versao)));
+
+        Assertions.assertEquals(MessageUtils.VERSION_MISMATCH, exception.getMessage());
+        Assertions.assertEquals(versao + 1, pessoaRepository.findVersaoById(pessoa.getId()).orElseThrow().versao());
+    }
+
+    /**
+     * Should apply every concurrent update of the same pessoa.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve aplicar todas as atualizações concorrentes da mesma pessoa")
+    public void shouldApplyEveryConcurrentUpdateOfTheSamePessoa() throws Exception {
+
+        var pessoa = pessoaService.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+        var threads = 8;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        var futures = new ArrayList<Future<Pessoa>>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+
+                var nome = "Pessoa " + UUID.randomUUID();
+
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return pessoaService.save(Pessoa.builder().id(pessoa.getId()).nome(nome).dataNascimento(LocalDate.now()).build());
+                }));
+            }
+
+            start.countDown();
+
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(pessoa.getVersao() + threads, pessoaRepository.findVersaoById(pessoa.getId()).orElseThrow().versao());
+    }
+
+    /**
+     * Should patch the data de nascimento without looking the nome up.
+     */
+    @Test
+    @DisplayName("Deve alterar a data de nascimento sem consultar o nome")
+    public void shouldPatchTheDataNascimentoWithoutLookingTheNomeUp() {
+
+        var pessoa = pessoaService.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+        var dataNascimento = LocalDate.of(1990, 1, 1);
+
+        SqlStatementCounter.start();
+        var patched = pessoaService.patch(pessoa.getId(), p -> p.setDataNascimento(dataNascimento), List.of(pessoa.getVersao()));
+
+        // the select and the update of the changed column
+        Assertions.assertEquals(2, SqlStatementCounter.stop());
+        Assertions.assertEquals(pessoa.getVersao() + 1, patched.getVersao());
+
+        var salva = pessoaRepository.findById(pessoa.getId()).orElseThrow();
+
+        Assertions.assertEquals(pessoa.getNome(), salva.getNome());
+        Assertions.assertEquals(dataNascimento, salva.getDataNascimento());
+    }
+
+    /**
+     * Should validate the nome of a patch.
+     */
+    @Test
+    @DisplayName("Deve validar o nome alterado")
+    public void shouldValidateThePatchedNome() {
+
+        var nome = "Pessoa " + UUID.randomUUID();
+        var pessoa = pessoaService.save(Pessoa.builder().nome(nome).dataNascimento(LocalDate.now()).build());
+        var outra = pessoaService.save(Pessoa.builder().nome("Pessoa " + UUID.randomUUID()).dataNascimento(LocalDate.now()).build());
+
+        var exception = Assertions.assertThrows(ValidationException.class, () ->
+                pessoaService.patch(outra.getId(), p -> p.setNome(nome.toUpperCase()), null));
+
+        Assertions.assertEquals(MessageUtils.PESSOA_ALREADY_EXISTS, exception.getMessage());
+
+        Assertions.assertThrows(ValidationException.class, () -> pessoaService.patch(outra.getId(), p -> p.setNome(null), null));
+        Assertions.assertThrows(PreconditionFailedException.class, () ->
+                pessoaService.patch(pessoa.getId(), p -> p.setDataNascimento(LocalDate.now()), List.of(pessoa.getVersao() + 1)));
+
+        Assertions.assertEquals(outra.getNome(), pessoaRepository.findById(outra.getId()).orElseThrow().getNome());
+    }
+
+    private long countStatementsToList(int size) {
+
+        seed(size);
+        statistics.clear();
+
+        var pessoas = pessoaService.findAll(null, size);
+
+        Assertions.assertEquals(size, pessoas.size());
+        pessoas.forEach(p -> Assertions.assertEquals(2, p.enderecos().size()));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seed(int size) {
+
+        for (int i = 0; i < size; i++) {
+
+            var pessoa = pessoaRepository.save(Pessoa.builder()
+                    .nome("Pessoa " + i)
+                    .dataNascimento(LocalDate.now())
+                    .build());
+
+            for (int j = 0; j < 2; j++) {
+                enderecoRepository.save(Endereco.builder()
+                        .logradouro("Avenida Primero de Janeiro")
+                        .numero(String.valueOf(j))
+                        .cidade("Irecê")
+                        .cep("44900000")
+                        .principal(j == 0)
+                        .pessoa(pessoa)
+                        .build());
+            }
+        }
+    }
+
+    private Endereco getEndereco(boolean principal) {
+
+        return Endereco.builder()
+                .logradouro("Avenida Primero de Janeiro")
+                .numero("1")
+                .cidade("Irecê")
+                .cep("44900000")
+                .principal(principal)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.edsonisaac.psattornatus.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.edsonisaac.psattornatus.dtos.PessoaDTO;
+import io.github.edsonisaac.psattornatus.events.EnderecosAlteradosEvent;
+import io.github.edsonisaac.psattornatus.events.PessoasSalvasEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Response cache service test.
+ */
+@SpringBootTest(properties = "app.response-cache.maximum-size=16KB")
+class ResponseCacheServiceTest {
+
+    @Autowired
+    private ResponseCacheService responseCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    /**
+     * Should serialize each versao once.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve serializar cada versão uma única vez")
+    public void shouldSerializeEachVersaoOnce() throws Exception {
+
+        var pessoa = getPessoa(1);
+        var leituras = new AtomicInteger();
+
+        var primeira = responseCache.get(ResponseCacheService.Recurso.PESSOA, pessoa.id(), 1, MediaType.APPLICATION_JSON, () -> {
+            leituras.incrementAndGet();
+            return pessoa;
+        });
+        var segunda = responseCache.get(ResponseCacheService.Recurso.PESSOA, pessoa.id(), 1, MediaType.APPLICATION_JSON, () -> {
+            leituras.incrementAndGet();
+            return pessoa;
+        });
+
+        Assertions.assertEquals(1, leituras.get());
+        Assertions.assertSame(primeira, segunda);
+        Assertions.assertArrayEquals(mapper.writeValueAsBytes(pessoa), primeira);
+
+        responseCache.get(ResponseCacheService.Recurso.PESSOA, pessoa.id(), 1, MediaType.APPLICATION_CBOR, () -> {
+            leituras.incrementAndGet();
+            return pessoa;
+        });
+        responseCache.get(ResponseCacheService.Recurso.PESSOA, pessoa.id(), 2, MediaType.APPLICATION_JSON, () -> {
+            leituras.incrementAndGet();
+            return getPessoa(2);
+        });
+
+        Assertions.assertEquals(3, leituras.get());
+    }
+
+    /**
+     * Should drop the responses of the pessoa when it is written.
+     */
+    @Test
+    @DisplayName("Deve descartar as respostas da pessoa quando ela é escrita")
+    public void shouldDropTheResponsesOfThePessoaWhenItIsWritten() {
+
+        var pessoa = getPessoa(1);
+        var leituras = new AtomicInteger();
+
+        responseCache.get(ResponseCacheService.Recurso.ENDERECOS, pessoa.id(), 1, MediaType.APPLICATION_JSON, () -> {
+            leituras.incrementAndGet();
+            return List.of();
+        });
+
+        eventPublisher.publishEvent(new EnderecosAlteradosEvent(pessoa.id(), List.of()));
+
+        responseCache.get(ResponseCacheService.Recurso.ENDERECOS, pessoa.id(), 1, MediaType.APPLICATION_JSON, () -> {
+            leituras.incrementAndGet();
+            return List.of();
+        });
+
+        eventPublisher.publishEvent(new PessoasSalvasEvent(List.of(pessoa)));
+
+        responseCache.get(ResponseCacheService.Recurso.ENDERECOS, pessoa.id(), 1, MediaType.APPLICATION_JSON, () -> {
+            leituras.incrementAndGet();
+            return List.of();
+        });
+
+        Assertions.assertEquals(3, leituras.get());
+    }
+
+    /**
+     * Should bound the cache by the size of the responses.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("Deve limitar o cache pelo tamanho das respostas")
+    public void shouldBoundTheCacheByTheSizeOfTheResponses() throws Exception {
+
+        var corpo = "x".repeat(1000);
+
+        for (int i = 0; i < 100; i++) {
+            responseCache.get(ResponseCacheService.Recurso.PESSOA, UUID.randomUUID(), 1, MediaType.APPLICATION_JSON, () -> corpo);
+        }
+
+        // evictions run in the background, shortly after the writes
+        for (int i = 0; i < 100 && responseCache.bytes() > 16 * 1024; i++) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertTrue(responseCache.bytes() <= 16 * 1024, () -> responseCache.bytes() + " bytes");
+        Assertions.assertTrue(responseCache.bytes() > 0);
+    }
+
+    private PessoaDTO getPessoa(long versao) {
+        return new PessoaDTO(UUID.randomUUID(), "Pessoa " + System.nanoTime(), LocalDate.now(), Set.of(), versao, Instant.now());
+    }
+}